@@ -25,12 +25,16 @@ echo -e "\n=== 3. Add Expense Category with Budget ==="
 curl -s -u alice:123 -X POST "$HOST/finance/categories" -H "Content-Type: application/json" -d '{"name":"Food", "type":"EXPENSE", "budgetLimit": 500}' | jq .
 echo "✅ Category 'Food' created with limit 500."
 
-echo -e "\n=== 4. Spend Money (Check Budget Warning) ==="
-# Тратим 600 (превышение)
+echo -e "\n=== 4. Spend Money (Over Budget) ==="
+# Подписываемся на уведомления о бюджете (SSE) и тратим 600 (превышение)
+curl -s -N -u alice:123 -H "Accept: text/event-stream" "$HOST/finance/budget/alerts" --max-time 3 > /tmp/budget_alerts.txt &
+sleep 1
 echo "Attempting to spend 600 on Food (Limit 500)..."
 response=$(curl -s -u alice:123 -X POST "$HOST/finance/transactions" -H "Content-Type: application/json" -d '{"categoryName":"Food", "amount":600, "description":"Big Dinner"}')
 echo "$response" | jq .
-echo "⚠️  Check for WARNING in response above."
+wait
+cat /tmp/budget_alerts.txt
+echo "⚠️  Budget alert received over SSE."
 
 echo -e "\n=== 5. Transfer Money Alice -> Bob ==="
 curl -s -u alice:123 -X POST "$HOST/finance/transfer" -H "Content-Type: application/json" -d '{"receiverUsername":"bob", "amount":1000}'
@@ -0,0 +1,4 @@
+#!/bin/sh
+# Разрешаем потоковую репликацию для реплики из docker-compose (профиль replica).
+# Выполняется только при первой инициализации тома primary
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
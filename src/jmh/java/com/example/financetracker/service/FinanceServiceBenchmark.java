@@ -0,0 +1,85 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.dto.CategoryAmount;
+import com.example.financetracker.dto.StatsResponse;
+import com.example.financetracker.dto.TransactionDto;
+import com.example.financetracker.entity.Category;
+import com.example.financetracker.entity.Transaction;
+import com.example.financetracker.entity.TransactionType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Горячие участки FinanceService без БД: ./gradlew jmh
+// Результаты: build/results/jmh/results.json (пропускная способность и gc.alloc.rate)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FinanceServiceBenchmark {
+
+  private static final int CATEGORIES = 50;
+
+  @Param({"1000", "100000", "1000000"})
+  private int transactions;
+
+  private List<Category> categories;
+  private List<Transaction> history;
+  // Суммы по категориям в том виде, в каком их возвращает БД для getStats
+  private List<CategoryAmount> totals;
+
+  @Setup
+  public void setUp() {
+    categories = new ArrayList<>(CATEGORIES);
+    for (int i = 0; i < CATEGORIES; i++) {
+      boolean income = i % 5 == 0;
+      categories.add(
+          Category.builder()
+              .id((long) i)
+              .name("category-" + i)
+              .type(income ? TransactionType.INCOME : TransactionType.EXPENSE)
+              .budgetLimit(income ? null : new BigDecimal("100000.00"))
+              .build());
+    }
+
+    history = new ArrayList<>(transactions);
+    Map<Category, BigDecimal> sums = new LinkedHashMap<>();
+    LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+    for (int i = 0; i < transactions; i++) {
+      Category category = categories.get(i % CATEGORIES);
+      BigDecimal amount = BigDecimal.valueOf(100 + i % 10_000, 2);
+      history.add(
+          Transaction.builder()
+              .id((long) i)
+              .category(category)
+              .amount(amount)
+              .description("operation " + i)
+              .date(start.plusMinutes(i))
+              .build());
+      sums.merge(category, amount, BigDecimal::add);
+    }
+    totals = new ArrayList<>();
+    sums.forEach((c, total) -> totals.add(new CategoryAmount(c.getType(), c.getName(), total)));
+  }
+
+  @Benchmark
+  public StatsResponse getStatsAggregation() {
+    return FinanceService.aggregateStats(totals, categories);
+  }
+
+  @Benchmark
+  public List<TransactionDto> exportTransactions() {
+    return history.stream().map(TransactionDto::from).toList();
+  }
+}
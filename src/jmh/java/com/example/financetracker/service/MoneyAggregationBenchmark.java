@@ -0,0 +1,134 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.dto.CategoryAmount;
+import com.example.financetracker.dto.StatsResponse;
+import com.example.financetracker.entity.Category;
+import com.example.financetracker.entity.TransactionType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Свёртка статистики по числу категорий и суммы пачки: BigDecimal против long-копеек:
+// ./gradlew jmh -PjmhIncludes=MoneyAggregationBenchmark
+// Сравнивайте bigDecimalBatchSums/minorUnitsBatchSums по score и gc.alloc.rate.norm
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MoneyAggregationBenchmark {
+
+  private static final int BATCH_CATEGORIES = 50;
+
+  // getStats свёртывает строки category_totals: их столько же, сколько категорий
+  @State(Scope.Benchmark)
+  public static class Stats {
+
+    @Param({"10", "1000", "100000"})
+    int categories;
+
+    List<Category> categoryList;
+    List<CategoryAmount> totals;
+
+    @Setup
+    public void setUp() {
+      categoryList = categories(categories);
+      totals = new ArrayList<>(categories);
+      for (int i = 0; i < categories; i++) {
+        Category c = categoryList.get(i);
+        totals.add(
+            new CategoryAmount(c.getType(), c.getName(), BigDecimal.valueOf(100 + i % 10_000, 2)));
+      }
+    }
+  }
+
+  // Пачка операций: сумма, категория и её порядковый номер
+  @State(Scope.Benchmark)
+  public static class Batch {
+
+    @Param({"1000", "100000", "1000000"})
+    int transactions;
+
+    BigDecimal[] amounts;
+    Category[] categoryOf;
+    int[] ordinalOf;
+
+    @Setup
+    public void setUp() {
+      List<Category> categoryList = categories(BATCH_CATEGORIES);
+      amounts = new BigDecimal[transactions];
+      categoryOf = new Category[transactions];
+      ordinalOf = new int[transactions];
+      for (int i = 0; i < transactions; i++) {
+        amounts[i] = BigDecimal.valueOf(100 + i % 10_000, 2);
+        ordinalOf[i] = i % BATCH_CATEGORIES;
+        categoryOf[i] = categoryList.get(ordinalOf[i]);
+      }
+    }
+  }
+
+  private static List<Category> categories(int count) {
+    List<Category> categories = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      boolean income = i % 5 == 0;
+      categories.add(
+          Category.builder()
+              .id((long) i)
+              .name("category-" + i)
+              .type(income ? TransactionType.INCOME : TransactionType.EXPENSE)
+              .budgetLimit(income ? null : new BigDecimal("100000.00"))
+              .build());
+    }
+    return categories;
+  }
+
+  // Свёртка getStats остаётся на BigDecimal: строки уже сложены в БД по категориям,
+  // перевод в копейки и обратно на таком входе только добавлял работу
+  @Benchmark
+  public StatsResponse stats(Stats state) {
+    return FinanceService.aggregateStats(state.totals, state.categoryList);
+  }
+
+  // Цикл сумм пачки до перехода на Money: итог по балансу и приращения по категориям
+  @Benchmark
+  public void bigDecimalBatchSums(Batch state, Blackhole blackhole) {
+    BigDecimal net = BigDecimal.ZERO;
+    Map<Long, BigDecimal> byCategory = new LinkedHashMap<>();
+    for (int i = 0; i < state.amounts.length; i++) {
+      Category category = state.categoryOf[i];
+      net =
+          category.getType() == TransactionType.EXPENSE
+              ? net.subtract(state.amounts[i])
+              : net.add(state.amounts[i]);
+      byCategory.merge(category.getId(), state.amounts[i], BigDecimal::add);
+    }
+    blackhole.consume(net);
+    blackhole.consume(byCategory);
+  }
+
+  // Тот же цикл на long-аккумуляторах; сумма переводится в копейки один раз на операцию
+  @Benchmark
+  public void minorUnitsBatchSums(Batch state, Blackhole blackhole) {
+    long net = 0;
+    long[] byCategory = new long[BATCH_CATEGORIES];
+    for (int i = 0; i < state.amounts.length; i++) {
+      long minor = Money.minorUnits(state.amounts[i]);
+      net =
+          state.categoryOf[i].getType() == TransactionType.EXPENSE
+              ? Money.subtract(net, minor)
+              : Money.add(net, minor);
+      byCategory[state.ordinalOf[i]] = Money.add(byCategory[state.ordinalOf[i]], minor);
+    }
+    blackhole.consume(net);
+    blackhole.consume(byCategory);
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.financetracker.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Операции нагрузочного микса и построение запросов к ним
+enum Endpoint {
+  TRANSACTIONS("transactions"),
+  TRANSFER("transfer"),
+  STATS("stats"),
+  CATEGORIES("categories"),
+  EXPORT("export");
+
+  private final String key;
+
+  Endpoint(String key) {
+    this.key = key;
+  }
+
+  String key() {
+    return key;
+  }
+
+  static Endpoint byName(String key) {
+    for (Endpoint endpoint : values()) {
+      if (endpoint.key.equals(key)) {
+        return endpoint;
+      }
+    }
+    throw new IllegalArgumentException("Unknown endpoint: " + key);
+  }
+
+  HttpRequest request(String baseUrl, String token, String otherUser) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    HttpRequest.Builder builder =
+        HttpRequest.newBuilder().header("Authorization", "Bearer " + token);
+    String api = baseUrl + "/api/finance";
+    return switch (this) {
+      case TRANSACTIONS -> {
+        // Доход и расход поровну, чтобы баланс не уходил в ноль
+        String category = random.nextBoolean() ? "Food" : "Salary";
+        yield json(builder, api + "/transactions")
+            .POST(
+                HttpRequest.BodyPublishers.ofString(
+                    "{\"categoryName\":\"" + category + "\",\"amount\":1}"))
+            .build();
+      }
+      case TRANSFER ->
+          json(builder, api + "/transfer")
+              .POST(
+                  HttpRequest.BodyPublishers.ofString(
+                      "{\"receiverUsername\":\"" + otherUser + "\",\"amount\":1}"))
+              .build();
+      case STATS ->
+          builder
+              .uri(
+                  URI.create(
+                      random.nextBoolean()
+                          ? api + "/stats"
+                          : api + "/stats?from=2024-01-01&to=2030-12-31"))
+              .GET()
+              .build();
+      case CATEGORIES -> builder.uri(URI.create(api + "/categories")).GET().build();
+      case EXPORT -> builder.uri(URI.create(api + "/export?format=ndjson")).GET().build();
+    };
+  }
+
+  private static HttpRequest.Builder json(HttpRequest.Builder builder, String url) {
+    return builder.uri(URI.create(url)).header("Content-Type", "application/json");
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.financetracker.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+// Задержки одной операции: corrected — от запланированного момента отправки
+// (учитывает coordinated omission), raw — от фактической отправки
+final class EndpointStats {
+
+  private static final double NANOS_PER_MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final Endpoint endpoint;
+  private final Histogram corrected = new ConcurrentHistogram(3);
+  private final Histogram raw = new ConcurrentHistogram(3);
+  private final AtomicLong errors = new AtomicLong();
+
+  EndpointStats(Endpoint endpoint) {
+    this.endpoint = endpoint;
+  }
+
+  void record(long intendedStart, long sent, long done, boolean ok) {
+    corrected.recordValue(done - intendedStart);
+    raw.recordValue(done - sent);
+    if (!ok) {
+      errors.incrementAndGet();
+    }
+  }
+
+  long count() {
+    return corrected.getTotalCount();
+  }
+
+  String summary(double seconds) {
+    return String.format(
+        "%-13s %8d %6d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f | raw p99 %8.2f",
+        endpoint.key(),
+        corrected.getTotalCount(),
+        errors.get(),
+        corrected.getTotalCount() / seconds,
+        ms(corrected.getValueAtPercentile(50)),
+        ms(corrected.getValueAtPercentile(95)),
+        ms(corrected.getValueAtPercentile(99)),
+        ms(corrected.getValueAtPercentile(99.9)),
+        ms(corrected.getMaxValue()),
+        ms(raw.getValueAtPercentile(99)));
+  }
+
+  static String header() {
+    return String.format(
+        "%-13s %8s %6s %9s %9s %9s %9s %9s %9s",
+        "endpoint", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms");
+  }
+
+  // Полное распределение в формате .hgrm (открывается HdrHistogram plotter)
+  void writeHgrm(Path dir, String prefix) throws IOException {
+    Files.createDirectories(dir);
+    try (PrintStream out =
+        new PrintStream(Files.newOutputStream(dir.resolve(prefix + endpoint.key() + ".hgrm")))) {
+      corrected.outputPercentileDistribution(out, NANOS_PER_MS);
+    }
+  }
+
+  private static double ms(long nanos) {
+    return nanos / NANOS_PER_MS;
+  }
+}
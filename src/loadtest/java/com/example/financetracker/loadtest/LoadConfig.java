@@ -0,0 +1,64 @@
+package com.example.financetracker.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Параметры прогона из системных свойств load.* (см. README)
+record LoadConfig(
+    String baseUrl,
+    int users,
+    int clients,
+    List<Integer> rates,
+    Duration warmup,
+    Duration duration,
+    Map<Endpoint, Integer> mix,
+    Path outputDir) {
+
+  LoadConfig {
+    // Переводу нужен получатель, отличный от отправителя
+    if (users < 2) {
+      throw new IllegalArgumentException("load.users must be at least 2");
+    }
+  }
+
+  static LoadConfig fromSystemProperties() {
+    List<Integer> rates = new ArrayList<>();
+    for (String rate : System.getProperty("load.rate", "100,200,400,800").split(",")) {
+      rates.add(Integer.parseInt(rate.trim()));
+    }
+    return new LoadConfig(
+        System.getProperty("load.baseUrl"),
+        Integer.getInteger("load.users", 50),
+        Integer.getInteger("load.clients", 64),
+        rates,
+        Duration.parse(System.getProperty("load.warmup", "PT10S")),
+        Duration.parse(System.getProperty("load.duration", "PT30S")),
+        parseMix(
+            System.getProperty(
+                "load.mix", "transactions=50,transfer=10,stats=20,categories=15,export=5")),
+        Path.of(System.getProperty("load.outputDir", "build/loadtest")));
+  }
+
+  // Формат: transactions=50,transfer=10,... — веса, а не проценты
+  private static Map<Endpoint, Integer> parseMix(String value) {
+    Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+    for (String part : value.split(",")) {
+      String[] kv = part.split("=");
+      if (kv.length != 2) {
+        throw new IllegalArgumentException("Invalid load.mix entry: " + part);
+      }
+      int weight = Integer.parseInt(kv[1].trim());
+      if (weight > 0) {
+        mix.put(Endpoint.byName(kv[0].trim()), weight);
+      }
+    }
+    if (mix.isEmpty()) {
+      throw new IllegalArgumentException("load.mix is empty");
+    }
+    return mix;
+  }
+}
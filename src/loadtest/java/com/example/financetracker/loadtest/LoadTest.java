@@ -0,0 +1,205 @@
+package com.example.financetracker.loadtest;
+
+import com.example.financetracker.FinanceTrackerApplication;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Нагрузочный прогон: поднимает приложение на локальной БД, регистрирует пользователей
+// и подаёт открытую нагрузку (фиксированный темп запросов) со ступенчатым ростом.
+// Запуск: ./gradlew loadTest -Dload.rate=200,400,800 -Dload.clients=64
+public final class LoadTest {
+
+  private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+  private final LoadConfig config;
+  private final String baseUrl;
+  private final HttpClient http =
+      HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .connectTimeout(Duration.ofSeconds(5))
+          .build();
+  private final List<String> usernames = new ArrayList<>();
+  private final List<String> tokens = new ArrayList<>();
+
+  private LoadTest(LoadConfig config, String baseUrl) {
+    this.config = config;
+    this.baseUrl = baseUrl;
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadConfig config = LoadConfig.fromSystemProperties();
+    ConfigurableApplicationContext app = null;
+    String baseUrl = config.baseUrl();
+    if (baseUrl == null) {
+      // SQL и DEBUG-логи сами по себе съедают пропускную способность
+      app =
+          SpringApplication.run(
+              FinanceTrackerApplication.class,
+              "--server.port=0",
+              "--spring.jpa.show-sql=false",
+              "--logging.level.com.example.financetracker=INFO");
+      baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+    }
+    try {
+      LoadTest loadTest = new LoadTest(config, baseUrl);
+      loadTest.setUpUsers();
+      for (int rate : config.rates()) {
+        loadTest.runStage(rate);
+      }
+    } finally {
+      if (app != null) {
+        app.close();
+      }
+    }
+  }
+
+  private void setUpUsers() throws IOException, InterruptedException {
+    String runId = Long.toString(System.currentTimeMillis(), 36);
+    for (int i = 0; i < config.users(); i++) {
+      String username = "load-" + runId + "-" + i;
+      String credentials = "{\"username\":\"" + username + "\",\"password\":\"pass\"}";
+      send(post("/api/auth/register", null, credentials));
+      Matcher matcher = TOKEN.matcher(send(post("/api/auth/login", null, credentials)));
+      if (!matcher.find()) {
+        throw new IllegalStateException("Login failed for " + username);
+      }
+      String token = matcher.group(1);
+      send(
+          post(
+              "/api/finance/categories", token, "{\"name\":\"Salary\",\"type\":\"INCOME\"}"));
+      send(
+          post(
+              "/api/finance/categories",
+              token,
+              "{\"name\":\"Food\",\"type\":\"EXPENSE\",\"budgetLimit\":1000000}"));
+      send(
+          post(
+              "/api/finance/transactions",
+              token,
+              "{\"categoryName\":\"Salary\",\"amount\":1000000000}"));
+      usernames.add(username);
+      tokens.add(token);
+    }
+    System.out.printf("registered %d users against %s%n", config.users(), baseUrl);
+  }
+
+  // Каждый клиент отправляет запросы по расписанию с шагом clients / rate. Задержка
+  // считается от запланированного момента: если сервер не успевает, ожидание в очереди
+  // попадает в гистограмму, а не теряется (поправка на coordinated omission)
+  private void runStage(int rate) throws Exception {
+    Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    for (Endpoint endpoint : config.mix().keySet()) {
+      stats.put(endpoint, new EndpointStats(endpoint));
+    }
+    Endpoint[] weighted = weightedMix();
+
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) * config.clients() / rate;
+    long start = System.nanoTime();
+    long measureFrom = start + config.warmup().toNanos();
+    long end = measureFrom + config.duration().toNanos();
+
+    ExecutorService pool = Executors.newFixedThreadPool(config.clients());
+    List<Future<?>> futures = new ArrayList<>();
+    for (int c = 0; c < config.clients(); c++) {
+      long offset = intervalNanos * c / config.clients();
+      futures.add(
+          pool.submit(
+              () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (long next = start + offset; next < end; next += intervalNanos) {
+                  long wait = next - System.nanoTime();
+                  if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                  }
+                  Endpoint endpoint = weighted[random.nextInt(weighted.length)];
+                  int user = random.nextInt(usernames.size());
+                  int other = (user + 1 + random.nextInt(usernames.size() - 1)) % usernames.size();
+                  HttpRequest request =
+                      endpoint.request(baseUrl, tokens.get(user), usernames.get(other));
+                  long sent = System.nanoTime();
+                  boolean ok = execute(request);
+                  long done = System.nanoTime();
+                  if (next >= measureFrom) {
+                    stats.get(endpoint).record(next, sent, done, ok);
+                  }
+                }
+                return null;
+              }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    pool.shutdown();
+
+    double seconds = config.duration().toMillis() / 1000.0;
+    long total = stats.values().stream().mapToLong(EndpointStats::count).sum();
+    System.out.printf(
+        "%n=== target %d req/s, achieved %.1f req/s, %d clients ===%n",
+        rate, total / seconds, config.clients());
+    System.out.println(EndpointStats.header());
+    for (EndpointStats endpointStats : stats.values()) {
+      System.out.println(endpointStats.summary(seconds));
+      endpointStats.writeHgrm(config.outputDir(), "rate-" + rate + "-");
+    }
+  }
+
+  private Endpoint[] weightedMix() {
+    List<Endpoint> weighted = new ArrayList<>();
+    for (Map.Entry<Endpoint, Integer> entry : config.mix().entrySet()) {
+      for (int i = 0; i < entry.getValue(); i++) {
+        weighted.add(entry.getKey());
+      }
+    }
+    return weighted.toArray(new Endpoint[0]);
+  }
+
+  private boolean execute(HttpRequest request) {
+    try {
+      HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+      return response.statusCode() < 400;
+    } catch (IOException e) {
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private HttpRequest post(String path, String token, String body) {
+    HttpRequest.Builder builder =
+        HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+    if (token != null) {
+      builder.header("Authorization", "Bearer " + token);
+    }
+    return builder.build();
+  }
+
+  private String send(HttpRequest request) throws IOException, InterruptedException {
+    HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() >= 400) {
+      throw new IllegalStateException(
+          request.uri() + " -> " + response.statusCode() + ": " + response.body());
+    }
+    return response.body();
+  }
+}
@@ -0,0 +1,133 @@
+package com.example.financetracker.command;
+
+import com.example.financetracker.dto.CategoryTotalDrift;
+import com.example.financetracker.service.BalanceService;
+import com.example.financetracker.service.CategoryTotalService;
+import com.example.financetracker.service.LedgerService;
+import com.example.financetracker.service.LedgerSnapshots;
+import com.example.financetracker.service.PartitionMaintenance;
+import com.example.financetracker.service.RollupService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+// Служебные команды, запуск: ./gradlew bootRun --args='--category-totals=verify'
+// Шардирование баланса горячего кошелька: --shard-wallet=<walletId>:<число полос>
+// Бэкфилл дневных и месячных сумм: --rollups=rebuild
+// Создание будущих и отключение старых секций transactions: --partitions=maintain
+// Журнальный режим баланса: --ledger-wallet=<walletId>, снимки сейчас: --ledger=snapshot
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MaintenanceCommands implements ApplicationRunner {
+
+  private static final String CATEGORY_TOTALS = "category-totals";
+  private static final String SHARD_WALLET = "shard-wallet";
+  private static final String ROLLUPS = "rollups";
+  private static final String PARTITIONS = "partitions";
+  private static final String LEDGER_WALLET = "ledger-wallet";
+  private static final String LEDGER = "ledger";
+
+  private final CategoryTotalService categoryTotalService;
+  private final BalanceService balanceService;
+  private final RollupService rollupService;
+  private final PartitionMaintenance partitionMaintenance;
+  private final LedgerService ledgerService;
+  private final LedgerSnapshots ledgerSnapshots;
+  private final ConfigurableApplicationContext context;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!args.containsOption(CATEGORY_TOTALS)
+        && !args.containsOption(SHARD_WALLET)
+        && !args.containsOption(ROLLUPS)
+        && !args.containsOption(PARTITIONS)
+        && !args.containsOption(LEDGER_WALLET)
+        && !args.containsOption(LEDGER)) {
+      return;
+    }
+    int exitCode = 0;
+    if (args.containsOption(CATEGORY_TOTALS)) {
+      for (String action : args.getOptionValues(CATEGORY_TOTALS)) {
+        switch (action) {
+          case "verify" -> exitCode = verifyCategoryTotals();
+          case "rebuild" -> {
+            int rows = categoryTotalService.rebuild();
+            log.info("category_totals rebuilt: {} rows", rows);
+          }
+          default -> throw new IllegalArgumentException("Unknown action: " + action);
+        }
+      }
+    }
+    if (args.containsOption(SHARD_WALLET)) {
+      for (String value : args.getOptionValues(SHARD_WALLET)) {
+        shardWallet(value);
+      }
+    }
+    if (args.containsOption(ROLLUPS)) {
+      for (String action : args.getOptionValues(ROLLUPS)) {
+        if (!"rebuild".equals(action)) {
+          throw new IllegalArgumentException("Unknown action: " + action);
+        }
+        int rows = rollupService.rebuild();
+        log.info("rollups rebuilt: {} daily rows", rows);
+      }
+    }
+    if (args.containsOption(PARTITIONS)) {
+      for (String action : args.getOptionValues(PARTITIONS)) {
+        if (!"maintain".equals(action)) {
+          throw new IllegalArgumentException("Unknown action: " + action);
+        }
+        partitionMaintenance.createUpcoming();
+        partitionMaintenance.detachCold();
+      }
+    }
+    if (args.containsOption(LEDGER_WALLET)) {
+      for (String value : args.getOptionValues(LEDGER_WALLET)) {
+        long walletId = Long.parseLong(value);
+        ledgerService.enable(walletId);
+        log.info("wallet {} switched to ledger mode", walletId);
+      }
+    }
+    if (args.containsOption(LEDGER)) {
+      for (String action : args.getOptionValues(LEDGER)) {
+        if (!"snapshot".equals(action)) {
+          throw new IllegalArgumentException("Unknown action: " + action);
+        }
+        ledgerSnapshots.snapshotAll();
+      }
+    }
+    int code = exitCode;
+    System.exit(SpringApplication.exit(context, () -> code));
+  }
+
+  private void shardWallet(String value) {
+    String[] parts = value.split(":");
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("Expected <walletId>:<shards>, got: " + value);
+    }
+    long walletId = Long.parseLong(parts[0]);
+    int shards = Integer.parseInt(parts[1]);
+    balanceService.enableSharding(walletId, shards);
+    log.info("wallet {} balance split into {} shards", walletId, shards);
+  }
+
+  private int verifyCategoryTotals() {
+    List<CategoryTotalDrift> drift = categoryTotalService.verify();
+    for (CategoryTotalDrift row : drift) {
+      log.warn(
+          "category_totals drift: wallet={} category={} stored={} actual={}",
+          row.getWalletId(),
+          row.getCategoryId(),
+          row.getStored(),
+          row.getActual());
+    }
+    log.info("category_totals verified: {} mismatched rows", drift.size());
+    return drift.isEmpty() ? 0 : 1;
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.financetracker.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// Ограничивает число одновременно выданных соединений честным семафором. С виртуальными
+// потоками запросов в работе может быть сколько угодно; лишние ждут здесь (с таймаутом),
+// а не в очереди пула и не в виде новых сессий Postgres. Разрешение возвращает close()
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+  private final Semaphore permits;
+  private final long acquireTimeoutMillis;
+
+  public ConcurrencyLimitingDataSource(
+      DataSource target, int maxConcurrency, Duration acquireTimeout) {
+    super(target);
+    this.permits = new Semaphore(maxConcurrency, true);
+    this.acquireTimeoutMillis = acquireTimeout.toMillis();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return limited(super.getConnection());
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    try {
+      return limited(super.getConnection(username, password));
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  public int getAvailablePermits() {
+    return permits.availablePermits();
+  }
+
+  public int getWaiting() {
+    return permits.getQueueLength();
+  }
+
+  private void acquire() throws SQLException {
+    try {
+      if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw new SQLTransientConnectionException(
+            "No database permit within " + acquireTimeoutMillis + " ms");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a permit", e);
+    }
+  }
+
+  // Повторный close() не возвращает разрешение второй раз
+  private Connection limited(Connection target) {
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection)
+        Proxy.newProxyInstance(
+            ConnectionProxy.class.getClassLoader(),
+            new Class<?>[] {ConnectionProxy.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "equals":
+                  return proxy == args[0];
+                case "hashCode":
+                  return System.identityHashCode(proxy);
+                case "getTargetConnection":
+                  return target;
+                case "close":
+                  try {
+                    target.close();
+                  } finally {
+                    if (released.compareAndSet(false, true)) {
+                      permits.release();
+                    }
+                  }
+                  return null;
+                default:
+                  try {
+                    return method.invoke(target, args);
+                  } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                  }
+              }
+            });
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.financetracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+// Чтение с реплик (finance.datasource.routing.enabled=true): primary собирается
+// из spring.datasource.*, реплики — из replica-urls с теми же учётными данными
+@Configuration
+@ConditionalOnProperty(name = "finance.datasource.routing.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+  // Миграции Flyway выполняются только на primary
+  @Bean
+  @FlywayDataSource
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean(destroyMethod = "close")
+  public ReplicaRoutingDataSource replicaRoutingDataSource(
+      HikariDataSource primaryDataSource,
+      DataSourceProperties properties,
+      @Value("${finance.datasource.routing.replica-urls}") List<String> replicaUrls,
+      @Value("${finance.datasource.routing.replica-pool-size:10}") int replicaPoolSize,
+      @Value("${finance.datasource.routing.sticky-window:5s}") Duration stickyWindow,
+      @Value("${finance.datasource.routing.health-check-interval:5s}")
+          Duration healthCheckInterval) {
+    List<DataSource> replicas = new ArrayList<>();
+    for (int i = 0; i < replicaUrls.size(); i++) {
+      HikariDataSource replica =
+          DataSourceBuilder.create()
+              .type(HikariDataSource.class)
+              .driverClassName(properties.determineDriverClassName())
+              .url(replicaUrls.get(i))
+              .username(properties.determineUsername())
+              .password(properties.determinePassword())
+              .build();
+      replica.setPoolName("replica-" + i);
+      replica.setMaximumPoolSize(replicaPoolSize);
+      replica.setReadOnly(true);
+      // Недоступная реплика не должна мешать старту приложения
+      replica.setInitializationFailTimeout(-1);
+      replicas.add(replica);
+    }
+    return new ReplicaRoutingDataSource(
+        primaryDataSource, replicas, stickyWindow, healthCheckInterval);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+  }
+}
@@ -0,0 +1,169 @@
+package com.example.financetracker.config;
+
+import com.example.financetracker.service.AccountPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Транзакции readOnly читают с реплик (по кругу, только живые), всё остальное идёт на primary.
+// После своей записи пользователь stickyWindow читает с primary, чтобы видеть свои изменения.
+// Пользователь — userId из AccountPrincipal запроса (AccountRef), а не имя. У потоков без
+// аутентифицированного запроса (команды обслуживания, рассылка SSE, планировщики очистки
+// и свёрток) пользователя нет: их записи никого не закрепляют за primary, а их readOnly
+// транзакции всегда идут на реплики (если есть живые).
+// Использовать за LazyConnectionDataSourceProxy: соединение берётся на первом запросе,
+// когда признак readOnly транзакции уже выставлен
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+  private final DataSource primary;
+  private final List<Replica> replicas = new ArrayList<>();
+  private final Cache<Long, Boolean> recentWriters;
+  private final AtomicInteger next = new AtomicInteger();
+  private final ScheduledExecutorService healthChecker;
+
+  public ReplicaRoutingDataSource(
+      DataSource primary,
+      List<DataSource> replicas,
+      Duration stickyWindow,
+      Duration healthCheckInterval) {
+    this.primary = primary;
+    for (int i = 0; i < replicas.size(); i++) {
+      this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+    }
+    this.recentWriters = Caffeine.newBuilder().expireAfterWrite(stickyWindow).build();
+    this.healthChecker =
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("replica-health").daemon().factory());
+    long interval = healthCheckInterval.toMillis();
+    healthChecker.scheduleWithFixedDelay(
+        this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      rememberWriter();
+      return primary.getConnection();
+    }
+    Long userId = currentUserId();
+    if (userId == null || recentWriters.getIfPresent(userId) == null) {
+      for (int i = 0; i < replicas.size(); i++) {
+        Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+        if (!replica.healthy) {
+          continue;
+        }
+        try {
+          return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+          replica.markDown(e);
+        }
+      }
+    }
+    // Нет живых реплик или пользователь недавно писал
+    return primary.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    throw new SQLFeatureNotSupportedException("Credentials are configured per pool");
+  }
+
+  public int getHealthyReplicas() {
+    return (int) replicas.stream().filter(r -> r.healthy).count();
+  }
+
+  @Override
+  public void close() {
+    healthChecker.shutdownNow();
+    for (Replica replica : replicas) {
+      if (replica.dataSource instanceof Closeable pool) {
+        try {
+          pool.close();
+        } catch (IOException e) {
+          log.warn("Failed to close {}", replica.name, e);
+        }
+      }
+    }
+  }
+
+  // Помечаем пользователя после коммита, а не при выдаче соединения: откат ничего не меняет
+  private void rememberWriter() {
+    Long userId = currentUserId();
+    if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            recentWriters.put(userId, Boolean.TRUE);
+          }
+        });
+  }
+
+  void checkReplicas() {
+    for (Replica replica : replicas) {
+      try (Connection connection = replica.dataSource.getConnection()) {
+        if (connection.isValid(1)) {
+          replica.markUp();
+        } else {
+          replica.markDown(null);
+        }
+      } catch (SQLException e) {
+        replica.markDown(e);
+      }
+    }
+  }
+
+  private static Long currentUserId() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication != null && authentication.getPrincipal() instanceof AccountPrincipal p
+        ? p.getAccount().userId()
+        : null;
+  }
+
+  private static final class Replica {
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy = true;
+
+    private Replica(String name, DataSource dataSource) {
+      this.name = name;
+      this.dataSource = dataSource;
+    }
+
+    private void markUp() {
+      if (!healthy) {
+        log.info("{} is back, routing reads to it", name);
+      }
+      healthy = true;
+    }
+
+    private void markDown(SQLException e) {
+      if (healthy) {
+        log.warn("{} is unavailable, reads fall back: {}", name, e != null ? e.getMessage() : "");
+      }
+      healthy = false;
+    }
+  }
+}
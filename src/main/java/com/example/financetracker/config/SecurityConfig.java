@@ -1,25 +1,40 @@
 package com.example.financetracker.config;
 
+import com.example.financetracker.service.TokenService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
   @Bean
-  public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain filterChain(HttpSecurity http, TokenService tokenService)
+      throws Exception {
     http.csrf(AbstractHttpConfigurer::disable)
+        .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(
             auth ->
-                auth.requestMatchers("/api/auth/register").permitAll().anyRequest().authenticated())
+                auth.requestMatchers("/api/auth/register", "/api/auth/login")
+                    .permitAll()
+                    // Скрейп Prometheus и проверка живости: actuator слушает только
+                    // management.server.port, который наружу не публикуется
+                    .requestMatchers("/actuator/health", "/actuator/prometheus")
+                    .permitAll()
+                    .anyRequest()
+                    .authenticated())
+        // Bearer-токен проверяется до Basic; Basic (BCrypt на запрос) оставлен для совместимости
+        .addFilterBefore(
+            new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
         .httpBasic(Customizer.withDefaults());
 
     return http.build();
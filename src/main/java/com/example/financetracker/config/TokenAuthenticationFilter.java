@@ -0,0 +1,45 @@
+package com.example.financetracker.config;
+
+import com.example.financetracker.dto.AccountRef;
+import com.example.financetracker.service.AccountPrincipal;
+import com.example.financetracker.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// Stateless-аутентификация по Bearer-токену из /api/auth/login, без обращения к БД:
+// принципал с id пользователя и кошелька собирается из самого токена
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+  private static final String BEARER = "Bearer ";
+
+  private final TokenService tokenService;
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+    if (header != null && header.startsWith(BEARER)) {
+      AccountRef account = tokenService.verify(header.substring(BEARER.length()));
+      if (account != null) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(
+            UsernamePasswordAuthenticationToken.authenticated(
+                AccountPrincipal.fromToken(account), null, Collections.emptyList()));
+        SecurityContextHolder.setContext(context);
+      }
+    }
+    chain.doFilter(request, response);
+  }
+}
@@ -0,0 +1,36 @@
+package com.example.financetracker.config;
+
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Режим виртуальных потоков (spring.threads.virtual.enabled=true): запросы обслуживаются
+// виртуальными потоками, а обращения к БД ограничиваются семафором перед DataSource
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+  @Bean
+  public static BeanPostProcessor dataSourceConcurrencyLimiter(
+      @Value("${finance.datasource.max-concurrency:20}") int maxConcurrency,
+      @Value("${finance.datasource.acquire-timeout:5s}") Duration acquireTimeout) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // Только основной DataSource: при чтении с реплик внутренние пулы не оборачиваются,
+        // иначе одно соединение занимало бы два разрешения
+        if (bean instanceof DataSource dataSource
+            && "dataSource".equals(beanName)
+            && !(bean instanceof ConcurrencyLimitingDataSource)) {
+          return new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, acquireTimeout);
+        }
+        return bean;
+      }
+    };
+  }
+}
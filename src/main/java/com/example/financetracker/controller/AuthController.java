@@ -1,6 +1,7 @@
 package com.example.financetracker.controller;
 
 import com.example.financetracker.dto.AuthRequest;
+import com.example.financetracker.dto.TokenResponse;
 import com.example.financetracker.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -21,4 +22,9 @@ public class AuthController {
     authService.register(request.getUsername(), request.getPassword());
     return ResponseEntity.ok("User registered successfully");
   }
+
+  @PostMapping("/login")
+  public ResponseEntity<TokenResponse> login(@RequestBody @Valid AuthRequest request) {
+    return ResponseEntity.ok(authService.login(request.getUsername(), request.getPassword()));
+  }
 }
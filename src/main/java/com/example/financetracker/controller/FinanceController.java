@@ -1,78 +1,221 @@
 package com.example.financetracker.controller;
 
+import com.example.financetracker.dto.AccountRef;
+import com.example.financetracker.dto.BalanceResponse;
+import com.example.financetracker.dto.BulkTransactionRequest;
+import com.example.financetracker.dto.BulkTransactionResponse;
 import com.example.financetracker.dto.CategoryDto;
+import com.example.financetracker.dto.CategoryResponse;
 import com.example.financetracker.dto.StatsResponse;
 import com.example.financetracker.dto.TransactionDto;
+import com.example.financetracker.dto.TransactionPage;
 import com.example.financetracker.dto.TransactionResponse;
 import com.example.financetracker.dto.TransferRequest;
-import com.example.financetracker.entity.Category;
+import com.example.financetracker.dto.Versioned;
+import com.example.financetracker.service.AccountPrincipal;
+import com.example.financetracker.service.BudgetAlertService;
+import com.example.financetracker.service.DataVersionService;
+import com.example.financetracker.service.ExportService;
 import com.example.financetracker.service.FinanceService;
+import com.example.financetracker.service.IdempotencyService;
+import com.example.financetracker.service.TransferEngine;
 import jakarta.validation.Valid;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/finance")
 @RequiredArgsConstructor
 public class FinanceController {
 
+  private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
   private final FinanceService financeService;
+  private final ExportService exportService;
+  private final TransferEngine transferEngine;
+  private final BudgetAlertService budgetAlertService;
+  private final IdempotencyService idempotencyService;
 
   @PostMapping("/categories")
-  public ResponseEntity<Category> createCategory(
-      @RequestBody @Valid CategoryDto dto, Authentication authentication) {
-    return ResponseEntity.ok(financeService.createCategory(authentication.getName(), dto));
+  public ResponseEntity<CategoryResponse> createCategory(
+      @RequestBody @Valid CategoryDto dto, @AuthenticationPrincipal AccountPrincipal principal) {
+    return ResponseEntity.ok(
+        CategoryResponse.from(financeService.createCategory(principal.getAccount(), dto)));
   }
 
   @PutMapping("/categories/{id}")
-  public ResponseEntity<Category> updateCategory(
-      @PathVariable Long id, @RequestBody @Valid CategoryDto dto, Authentication authentication) {
-    return ResponseEntity.ok(financeService.updateCategory(authentication.getName(), id, dto));
+  public ResponseEntity<CategoryResponse> updateCategory(
+      @PathVariable Long id,
+      @RequestBody @Valid CategoryDto dto,
+      @AuthenticationPrincipal AccountPrincipal principal) {
+    return ResponseEntity.ok(
+        CategoryResponse.from(financeService.updateCategory(principal.getAccount(), id, dto)));
   }
 
   @GetMapping("/categories")
-  public ResponseEntity<List<Category>> getCategories(Authentication authentication) {
-    return ResponseEntity.ok(financeService.getCategories(authentication.getName()));
+  public ResponseEntity<List<CategoryResponse>> getCategories(
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @AuthenticationPrincipal AccountPrincipal principal) {
+    return conditional(
+        financeService.getCategories(
+            principal.getAccount(), version -> DataVersionService.matches(ifNoneMatch, version)));
   }
 
+  // С заголовком Idempotency-Key повтор запроса вернёт первый ответ, не создавая операцию
   @PostMapping("/transactions")
   public ResponseEntity<TransactionResponse> addTransaction(
-      @RequestBody @Valid TransactionDto dto, Authentication authentication) {
-    return ResponseEntity.ok(financeService.addTransaction(authentication.getName(), dto));
+      @RequestBody @Valid TransactionDto dto,
+      @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+      @AuthenticationPrincipal AccountPrincipal principal) {
+    return ResponseEntity.ok(
+        idempotencyService.execute(
+            principal.getUsername(),
+            idempotencyKey,
+            "POST /transactions",
+            dto,
+            TransactionResponse.class,
+            () -> financeService.addTransaction(principal.getAccount(), dto)));
+  }
+
+  @PostMapping("/transactions/bulk")
+  public ResponseEntity<BulkTransactionResponse> addTransactions(
+      @RequestBody @Valid BulkTransactionRequest request,
+      @AuthenticationPrincipal AccountPrincipal principal) {
+    return ResponseEntity.ok(
+        financeService.addTransactions(principal.getAccount(), request.getTransactions()));
   }
 
+  @GetMapping("/transactions")
+  public ResponseEntity<TransactionPage> getTransactions(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int size,
+      @RequestParam(required = false) String category,
+      @RequestParam(required = false) LocalDate from,
+      @RequestParam(required = false) LocalDate to,
+      @AuthenticationPrincipal AccountPrincipal principal) {
+    return ResponseEntity.ok(
+        financeService.getTransactions(
+            principal.getAccount(),
+            cursor,
+            size,
+            category,
+            from != null ? from.atStartOfDay() : null,
+            to != null ? to.plusDays(1).atStartOfDay() : null));
+  }
+
+  // date — баланс на конец этого дня
+  @GetMapping("/balance")
+  public ResponseEntity<BalanceResponse> getBalance(
+      @RequestParam(required = false) LocalDate date,
+      @AuthenticationPrincipal AccountPrincipal principal) {
+    return ResponseEntity.ok(
+        financeService.getBalance(
+            principal.getAccount(), date != null ? date.plusDays(1).atStartOfDay() : null));
+  }
+
+  // ETag — версия данных пользователя; при совпадении с If-None-Match отчёт не считается
   @GetMapping("/stats")
   public ResponseEntity<StatsResponse> getStats(
       @RequestParam(required = false) LocalDate from,
       @RequestParam(required = false) LocalDate to,
-      Authentication authentication) {
-    return ResponseEntity.ok(
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @AuthenticationPrincipal AccountPrincipal principal) {
+    return conditional(
         financeService.getStats(
-            authentication.getName(),
+            principal.getAccount(),
             from != null ? from.atStartOfDay() : null,
-            to != null ? to.atTime(23, 59, 59) : null));
+            to != null ? to.plusDays(1).atStartOfDay() : null,
+            version -> DataVersionService.matches(ifNoneMatch, version)));
   }
 
+  // Поток уведомлений о достижении 80% и 100% лимита категорий (Server-Sent Events)
+  @GetMapping(value = "/budget/alerts", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter budgetAlerts(@AuthenticationPrincipal AccountPrincipal principal) {
+    return budgetAlertService.subscribe(principal.getAccount().userId());
+  }
+
+  // Ключ сохраняется в транзакции каждой попытки перевода: повтор после сбоя
+  // сериализации занимает его заново
   @PostMapping("/transfer")
   public ResponseEntity<String> transfer(
-      @RequestBody @Valid TransferRequest request, Authentication authentication) {
-    financeService.transfer(authentication.getName(), request);
-    return ResponseEntity.ok("Transfer successful");
+      @RequestBody @Valid TransferRequest request,
+      @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+      @AuthenticationPrincipal AccountPrincipal principal) {
+    return ResponseEntity.ok(
+        transferEngine.transfer(
+            principal.getAccount(),
+            request,
+            attempt ->
+                idempotencyService.execute(
+                    principal.getUsername(),
+                    idempotencyKey,
+                    "POST /transfer",
+                    request,
+                    String.class,
+                    () -> {
+                      attempt.run();
+                      return "Transfer successful";
+                    })));
   }
 
   @GetMapping("/export")
-  public ResponseEntity<List<TransactionDto>> export(Authentication authentication) {
-    return ResponseEntity.ok(financeService.exportTransactions(authentication.getName()));
+  public ResponseEntity<List<TransactionDto>> export(
+      @AuthenticationPrincipal AccountPrincipal principal) {
+    return ResponseEntity.ok(financeService.exportTransactions(principal.getAccount()));
+  }
+
+  // Потоковый экспорт (ndjson или csv), ответ отдаётся chunked по мере чтения из БД
+  @GetMapping(value = "/export", params = "format")
+  public ResponseEntity<StreamingResponseBody> exportStream(
+      @RequestParam String format,
+      @RequestParam(required = false) LocalDate from,
+      @RequestParam(required = false) LocalDate to,
+      @AuthenticationPrincipal AccountPrincipal principal) {
+    ExportService.Format exportFormat = ExportService.Format.parse(format);
+    AccountRef account = principal.getAccount();
+    LocalDateTime start = from != null ? from.atStartOfDay() : null;
+    LocalDateTime end = to != null ? to.plusDays(1).atStartOfDay() : null;
+
+    StreamingResponseBody body =
+        out -> exportService.export(account, start, end, exportFormat, out);
+    return ResponseEntity.ok()
+        .contentType(exportFormat.getMediaType())
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=transactions." + exportFormat.name().toLowerCase(Locale.ROOT))
+        .body(body);
+  }
+
+  // no-cache: клиент хранит ответ, но каждый раз сверяет версию через If-None-Match
+  private static <T> ResponseEntity<T> conditional(Versioned<T> result) {
+    String etag = DataVersionService.etag(result.version());
+    CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+    if (result.body() == null) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(etag)
+          .cacheControl(cacheControl)
+          .build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(result.body());
   }
 }
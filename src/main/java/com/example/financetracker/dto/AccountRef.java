@@ -0,0 +1,5 @@
+package com.example.financetracker.dto;
+
+// Идентификаторы пользователя и его кошелька (и имя) одним запросом, без загрузки сущностей.
+// Для аутентифицированного запроса берётся из AccountPrincipal
+public record AccountRef(Long userId, Long walletId, String username) {}
@@ -0,0 +1,11 @@
+package com.example.financetracker.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BalanceResponse {
+  private BigDecimal balance;
+}
@@ -0,0 +1,11 @@
+package com.example.financetracker.dto;
+
+import java.math.BigDecimal;
+
+// Событие SSE: траты по категории достигли threshold процентов лимита
+public record BudgetAlert(
+    String category,
+    int threshold,
+    BigDecimal budgetLimit,
+    BigDecimal spent,
+    BigDecimal remaining) {}
@@ -0,0 +1,14 @@
+package com.example.financetracker.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BulkTransactionRequest {
+  @NotEmpty
+  @Size(max = 1000)
+  private List<@Valid TransactionDto> transactions;
+}
@@ -0,0 +1,10 @@
+package com.example.financetracker.dto;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BulkTransactionResponse {
+  private int inserted;
+  private List<String> warnings;
+}
@@ -0,0 +1,6 @@
+package com.example.financetracker.dto;
+
+import com.example.financetracker.entity.TransactionType;
+import java.math.BigDecimal;
+
+public record CategoryAmount(TransactionType type, String name, BigDecimal total) {}
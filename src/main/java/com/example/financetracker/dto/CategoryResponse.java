@@ -0,0 +1,22 @@
+package com.example.financetracker.dto;
+
+import com.example.financetracker.entity.Category;
+import com.example.financetracker.entity.TransactionType;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryResponse {
+  private Long id;
+  private String name;
+  private TransactionType type;
+  private BigDecimal budgetLimit;
+
+  public static CategoryResponse from(Category c) {
+    return new CategoryResponse(c.getId(), c.getName(), c.getType(), c.getBudgetLimit());
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.financetracker.dto;
+
+import java.math.BigDecimal;
+
+public interface CategoryTotalDrift {
+  Long getWalletId();
+
+  Long getCategoryId();
+
+  BigDecimal getStored();
+
+  BigDecimal getActual();
+}
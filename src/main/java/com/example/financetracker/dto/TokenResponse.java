@@ -0,0 +1,11 @@
+package com.example.financetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TokenResponse {
+  private String token;
+  private long expiresIn;
+}
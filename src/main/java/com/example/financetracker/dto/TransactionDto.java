@@ -1,13 +1,18 @@
 package com.example.financetracker.dto;
 
+import com.example.financetracker.entity.Transaction;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class TransactionDto {
   private Long id;
   @NotBlank private String categoryName;
@@ -18,4 +23,14 @@ public class TransactionDto {
 
   private String description;
   private LocalDateTime date;
+
+  public static TransactionDto from(Transaction t) {
+    TransactionDto dto = new TransactionDto();
+    dto.setId(t.getId());
+    dto.setCategoryName(t.getCategory().getName());
+    dto.setAmount(t.getAmount());
+    dto.setDescription(t.getDescription());
+    dto.setDate(t.getDate());
+    return dto;
+  }
 }
@@ -0,0 +1,11 @@
+package com.example.financetracker.dto;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class TransactionPage {
+  private List<TransactionDto> items;
+  // null, если это последняя страница
+  private String nextCursor;
+}
@@ -0,0 +1,4 @@
+package com.example.financetracker.dto;
+
+// Ответ вместе с версией данных пользователя; body == null — у клиента актуальная версия
+public record Versioned<T>(long version, T body) {}
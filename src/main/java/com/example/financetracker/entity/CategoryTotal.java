@@ -0,0 +1,42 @@
+package com.example.financetracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Накопительная сумма операций по категории кошелька (обновляется при каждой записи)
+@Entity
+@Table(name = "category_totals")
+@IdClass(CategoryTotal.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryTotal {
+  @Id
+  @Column(name = "wallet_id")
+  private Long walletId;
+
+  @Id
+  @Column(name = "category_id")
+  private Long categoryId;
+
+  @Column(nullable = false)
+  private BigDecimal total;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private Long walletId;
+    private Long categoryId;
+  }
+}
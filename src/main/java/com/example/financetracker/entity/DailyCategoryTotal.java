@@ -0,0 +1,46 @@
+package com.example.financetracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Сумма операций по категории кошелька за день
+@Entity
+@Table(name = "daily_category_totals")
+@IdClass(DailyCategoryTotal.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyCategoryTotal {
+  @Id
+  @Column(name = "wallet_id")
+  private Long walletId;
+
+  @Id
+  @Column(name = "category_id")
+  private Long categoryId;
+
+  @Id private LocalDate day;
+
+  @Column(nullable = false)
+  private BigDecimal total;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private Long walletId;
+    private Long categoryId;
+    private LocalDate day;
+  }
+}
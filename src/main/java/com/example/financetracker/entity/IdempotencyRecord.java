@@ -0,0 +1,46 @@
+package com.example.financetracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Запрос с заголовком Idempotency-Key и сохранённый ответ (JSON) для повторов
+@Entity
+@Table(name = "idempotency_keys")
+@IdClass(IdempotencyRecord.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+  @Id private String username;
+
+  @Id
+  @Column(name = "idempotency_key")
+  private String idempotencyKey;
+
+  @Column(name = "request_hash", nullable = false)
+  private String requestHash;
+
+  @Column(columnDefinition = "TEXT")
+  private String response;
+
+  @Column(name = "expires_at", nullable = false)
+  private LocalDateTime expiresAt;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private String username;
+    private String idempotencyKey;
+  }
+}
@@ -0,0 +1,46 @@
+package com.example.financetracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Сумма операций по категории кошелька за месяц (month — первое число)
+@Entity
+@Table(name = "monthly_category_totals")
+@IdClass(MonthlyCategoryTotal.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonthlyCategoryTotal {
+  @Id
+  @Column(name = "wallet_id")
+  private Long walletId;
+
+  @Id
+  @Column(name = "category_id")
+  private Long categoryId;
+
+  @Id private LocalDate month;
+
+  @Column(nullable = false)
+  private BigDecimal total;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private Long walletId;
+    private Long categoryId;
+    private LocalDate month;
+  }
+}
@@ -3,18 +3,22 @@ package com.example.financetracker.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Table(name = "transactions")
@@ -24,21 +28,31 @@ import lombok.NoArgsConstructor;
 @Builder
 public class Transaction {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+  @SequenceGenerator(
+      name = "transactions_seq", sequenceName = "transactions_id_seq", allocationSize = 50)
   private Long id;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "wallet_id")
   @JsonIgnore
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
   private Wallet wallet;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "category_id")
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
   private Category category;
 
   @Column(nullable = false)
   private BigDecimal amount;
 
+  // Изменение баланса со знаком: доход положительный, расход отрицательный
+  @Column(nullable = false)
+  private BigDecimal delta;
+
   private String description;
 
   @Column(nullable = false)
@@ -3,17 +3,21 @@ package com.example.financetracker.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Table(name = "wallets")
@@ -23,14 +27,27 @@ import lombok.NoArgsConstructor;
 @Builder
 public class Wallet {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wallets_seq")
+  @SequenceGenerator(name = "wallets_seq", sequenceName = "wallets_id_seq", allocationSize = 50)
   private Long id;
 
-  @OneToOne
+  @OneToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "user_id", referencedColumnName = "id")
   @JsonIgnore
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
   private User user;
 
   @Column(nullable = false)
   private BigDecimal balance;
+
+  // Число полос баланса; при значении больше 1 баланс лежит в wallet_balance_shards
+  @Column(name = "balance_shards", nullable = false)
+  @Builder.Default
+  private int balanceShards = 1;
+
+  // Журнальный режим: баланс считается по снимкам и операциям (LedgerService)
+  @Column(nullable = false)
+  @Builder.Default
+  private boolean ledger = false;
 }
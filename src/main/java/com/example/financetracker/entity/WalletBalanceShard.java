@@ -0,0 +1,40 @@
+package com.example.financetracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Часть баланса шардированного кошелька
+@Entity
+@Table(name = "wallet_balance_shards")
+@IdClass(WalletBalanceShard.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WalletBalanceShard {
+  @Id
+  @Column(name = "wallet_id")
+  private Long walletId;
+
+  @Id private Integer shard;
+
+  @Column(nullable = false)
+  private BigDecimal balance;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private Long walletId;
+    private Integer shard;
+  }
+}
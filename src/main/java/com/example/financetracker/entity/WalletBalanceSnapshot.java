@@ -0,0 +1,46 @@
+package com.example.financetracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Баланс журнального кошелька по операциям с ledger_seq <= ledgerSeq и date < asOf
+@Entity
+@Table(name = "wallet_balance_snapshots")
+@IdClass(WalletBalanceSnapshot.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WalletBalanceSnapshot {
+  @Id
+  @Column(name = "wallet_id")
+  private Long walletId;
+
+  @Id
+  @Column(name = "as_of")
+  private LocalDateTime asOf;
+
+  @Column(name = "ledger_seq", nullable = false)
+  private long ledgerSeq;
+
+  @Column(nullable = false)
+  private BigDecimal balance;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private Long walletId;
+    private LocalDateTime asOf;
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.financetracker.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+// Повтор по Idempotency-Key нельзя обслужить: исходный запрос ещё выполняется (409)
+// или ключ пришёл с другим телом запроса (422)
+@Getter
+public class IdempotencyException extends RuntimeException {
+
+  private final HttpStatus status;
+
+  public IdempotencyException(HttpStatus status, String message) {
+    super(message);
+    this.status = status;
+  }
+}
@@ -3,12 +3,22 @@ package com.example.financetracker.repository;
 import com.example.financetracker.entity.Category;
 import com.example.financetracker.entity.TransactionType;
 import com.example.financetracker.entity.User;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+// Запросы по категориям в кэше запросов: результат сбрасывается при любой записи в categories
 public interface CategoryRepository extends JpaRepository<Category, Long> {
-  List<Category> findByUser(User user);
+  // Только строки categories: user_id сравнивается без join с users
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  List<Category> findByUserId(Long userId);
 
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  List<Category> findByUserIdAndNameOrderById(Long userId, String name);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   Optional<Category> findByNameAndUserAndType(String name, User user, TransactionType type);
 }
@@ -0,0 +1,80 @@
+package com.example.financetracker.repository;
+
+import com.example.financetracker.dto.CategoryAmount;
+import com.example.financetracker.dto.CategoryTotalDrift;
+import com.example.financetracker.entity.CategoryTotal;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+// Нативные изменения перечисляют затронутые таблицы (HINT_NATIVE_SPACES): без этого
+// Hibernate сбрасывает после каждого из них все регионы кэша второго уровня
+public interface CategoryTotalRepository extends JpaRepository<CategoryTotal, CategoryTotal.Key> {
+
+  // Атомарное приращение счётчика (строка создаётся при первой операции в категории).
+  // Возвращает итог после приращения: он виден только этой транзакции под блокировкой строки,
+  // поэтому по нему однозначно видно, какой расход пересёк порог бюджета.
+  // Без @Modifying: INSERT ... RETURNING выполняется как запрос с результатом
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category_totals"))
+  @Query(
+      value =
+          "INSERT INTO category_totals (wallet_id, category_id, total)"
+              + " VALUES (:walletId, :categoryId, :amount)"
+              + " ON CONFLICT (wallet_id, category_id)"
+              + " DO UPDATE SET total = category_totals.total + EXCLUDED.total"
+              + " RETURNING total",
+      nativeQuery = true)
+  BigDecimal add(
+      @Param("walletId") Long walletId,
+      @Param("categoryId") Long categoryId,
+      @Param("amount") BigDecimal amount);
+
+  @Query(
+      "select new com.example.financetracker.dto.CategoryAmount(c.type, c.name, sum(ct.total))"
+          + " from CategoryTotal ct, Category c"
+          + " where c.id = ct.categoryId and ct.walletId = :walletId"
+          + " group by c.type, c.name")
+  List<CategoryAmount> sumByCategory(@Param("walletId") Long walletId);
+
+  // Блокирует приращения на время пересборки, чтобы не потерять параллельные записи
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category_totals"))
+  @Query(value = "LOCK TABLE category_totals IN EXCLUSIVE MODE", nativeQuery = true)
+  void lockForRebuild();
+
+  // Источник — transactions и суммы отключённых секций (archived_category_totals, V12)
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category_totals"))
+  @Query(
+      value =
+          "INSERT INTO category_totals (wallet_id, category_id, total)"
+              + " SELECT wallet_id, category_id, SUM(amount) FROM ("
+              + " SELECT wallet_id, category_id, amount FROM transactions"
+              + " WHERE wallet_id IS NOT NULL AND category_id IS NOT NULL"
+              + " UNION ALL SELECT wallet_id, category_id, total FROM archived_category_totals) s"
+              + " GROUP BY wallet_id, category_id",
+      nativeQuery = true)
+  int insertFromTransactions();
+
+  @Query(
+      value =
+          "SELECT COALESCE(ct.wallet_id, s.wallet_id) AS \"walletId\","
+              + " COALESCE(ct.category_id, s.category_id) AS \"categoryId\","
+              + " ct.total AS \"stored\", s.total AS \"actual\""
+              + " FROM category_totals ct FULL OUTER JOIN"
+              + " (SELECT wallet_id, category_id, SUM(amount) AS total FROM ("
+              + " SELECT wallet_id, category_id, amount FROM transactions"
+              + " WHERE wallet_id IS NOT NULL AND category_id IS NOT NULL"
+              + " UNION ALL SELECT wallet_id, category_id, total FROM archived_category_totals) a"
+              + " GROUP BY wallet_id, category_id) s"
+              + " ON ct.wallet_id = s.wallet_id AND ct.category_id = s.category_id"
+              + " WHERE ct.total IS DISTINCT FROM s.total",
+      nativeQuery = true)
+  List<CategoryTotalDrift> findDrift();
+}
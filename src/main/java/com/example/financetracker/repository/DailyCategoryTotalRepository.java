@@ -0,0 +1,83 @@
+package com.example.financetracker.repository;
+
+import com.example.financetracker.dto.CategoryAmount;
+import com.example.financetracker.entity.DailyCategoryTotal;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+public interface DailyCategoryTotalRepository
+    extends JpaRepository<DailyCategoryTotal, DailyCategoryTotal.Key> {
+
+  // Приращение дневной и месячной строки одним запросом
+  @Modifying
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_category_totals"),
+    @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_category_totals")
+  })
+  @Query(
+      value =
+          "WITH daily AS ("
+              + " INSERT INTO daily_category_totals (wallet_id, category_id, day, total)"
+              + " VALUES (:walletId, :categoryId, CAST(:date AS DATE), :amount)"
+              + " ON CONFLICT (wallet_id, day, category_id)"
+              + " DO UPDATE SET total = daily_category_totals.total + EXCLUDED.total)"
+              + " INSERT INTO monthly_category_totals (wallet_id, category_id, month, total)"
+              + " VALUES (:walletId, :categoryId,"
+              + " CAST(date_trunc('month', CAST(:date AS TIMESTAMP)) AS DATE), :amount)"
+              + " ON CONFLICT (wallet_id, month, category_id)"
+              + " DO UPDATE SET total = monthly_category_totals.total + EXCLUDED.total",
+      nativeQuery = true)
+  void add(
+      @Param("walletId") Long walletId,
+      @Param("categoryId") Long categoryId,
+      @Param("date") LocalDateTime date,
+      @Param("amount") BigDecimal amount);
+
+  // Дни [from, to)
+  @Query(
+      "select new com.example.financetracker.dto.CategoryAmount(c.type, c.name, sum(d.total))"
+          + " from DailyCategoryTotal d, Category c"
+          + " where c.id = d.categoryId and d.walletId = :walletId"
+          + " and d.day >= :from and d.day < :to"
+          + " group by c.type, c.name")
+  List<CategoryAmount> sumByCategory(
+      @Param("walletId") Long walletId,
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to);
+
+  // Блокирует приращения на время пересборки (обе таблицы)
+  @Modifying
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_category_totals"),
+    @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_category_totals")
+  })
+  @Query(
+      value = "LOCK TABLE daily_category_totals, monthly_category_totals IN EXCLUSIVE MODE",
+      nativeQuery = true)
+  void lockForRebuild();
+
+  // Источник — transactions и суммы отключённых секций (archived_category_totals, V12)
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_category_totals"))
+  @Query(
+      value =
+          "INSERT INTO daily_category_totals (wallet_id, category_id, day, total)"
+              + " SELECT wallet_id, category_id, day, SUM(amount) FROM ("
+              + " SELECT wallet_id, category_id, CAST(date AS DATE) AS day, amount"
+              + " FROM transactions"
+              + " WHERE wallet_id IS NOT NULL AND category_id IS NOT NULL"
+              + " UNION ALL SELECT wallet_id, category_id, day, total"
+              + " FROM archived_category_totals) s"
+              + " GROUP BY wallet_id, category_id, day",
+      nativeQuery = true)
+  int insertFromTransactions();
+}
@@ -0,0 +1,64 @@
+package com.example.financetracker.repository;
+
+import com.example.financetracker.entity.IdempotencyRecord;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+// Ключ занимается и ответ сохраняется в транзакции самого запроса (IdempotencyService),
+// поэтому строка ключа фиксируется только вместе с его записью
+public interface IdempotencyRecordRepository
+    extends JpaRepository<IdempotencyRecord, IdempotencyRecord.Key> {
+
+  // 1 — ключ занят этим запросом (новый или истёкший), 0 — ключ уже есть.
+  // Параллельный дубль ждёт здесь конца транзакции первого запроса
+  @Transactional
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+  @Query(
+      value =
+          "INSERT INTO idempotency_keys (username, idempotency_key, request_hash, expires_at)"
+              + " VALUES (:username, :key, :hash, :expiresAt)"
+              + " ON CONFLICT (username, idempotency_key) DO UPDATE"
+              + " SET request_hash = EXCLUDED.request_hash, response = NULL,"
+              + " expires_at = EXCLUDED.expires_at"
+              + " WHERE idempotency_keys.expires_at <= :now",
+      nativeQuery = true)
+  int claim(
+      @Param("username") String username,
+      @Param("key") String key,
+      @Param("hash") String hash,
+      @Param("now") LocalDateTime now,
+      @Param("expiresAt") LocalDateTime expiresAt);
+
+  @Transactional
+  @Query(
+      "select r from IdempotencyRecord r"
+          + " where r.username = :username and r.idempotencyKey = :key")
+  Optional<IdempotencyRecord> findRecord(
+      @Param("username") String username, @Param("key") String key);
+
+  // Срок ключа отсчитывается от сохранения ответа
+  @Transactional
+  @Modifying
+  @Query(
+      "update IdempotencyRecord r set r.response = :response, r.expiresAt = :expiresAt"
+          + " where r.username = :username and r.idempotencyKey = :key")
+  int complete(
+      @Param("username") String username,
+      @Param("key") String key,
+      @Param("response") String response,
+      @Param("expiresAt") LocalDateTime expiresAt);
+
+  @Transactional
+  @Modifying
+  @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+  int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,42 @@
+package com.example.financetracker.repository;
+
+import com.example.financetracker.dto.CategoryAmount;
+import com.example.financetracker.entity.MonthlyCategoryTotal;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+public interface MonthlyCategoryTotalRepository
+    extends JpaRepository<MonthlyCategoryTotal, MonthlyCategoryTotal.Key> {
+
+  // Месяцы [from, to), границы — первые числа месяцев
+  @Query(
+      "select new com.example.financetracker.dto.CategoryAmount(c.type, c.name, sum(m.total))"
+          + " from MonthlyCategoryTotal m, Category c"
+          + " where c.id = m.categoryId and m.walletId = :walletId"
+          + " and m.month >= :from and m.month < :to"
+          + " group by c.type, c.name")
+  List<CategoryAmount> sumByCategory(
+      @Param("walletId") Long walletId,
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to);
+
+  // Строится из дневных строк, поэтому вызывать после пересборки daily_category_totals
+  @Modifying
+  @QueryHints(
+      @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_category_totals"))
+  @Query(
+      value =
+          "INSERT INTO monthly_category_totals (wallet_id, category_id, month, total)"
+              + " SELECT wallet_id, category_id, CAST(date_trunc('month', day) AS DATE),"
+              + " SUM(total) FROM daily_category_totals"
+              + " GROUP BY wallet_id, category_id, CAST(date_trunc('month', day) AS DATE)",
+      nativeQuery = true)
+  int insertFromDaily();
+}
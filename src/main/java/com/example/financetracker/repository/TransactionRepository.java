@@ -1,10 +1,109 @@
 package com.example.financetracker.repository;
 
+import com.example.financetracker.dto.CategoryAmount;
+import com.example.financetracker.dto.TransactionDto;
 import com.example.financetracker.entity.Transaction;
-import com.example.financetracker.entity.Wallet;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-  List<Transaction> findByWallet(Wallet wallet);
+public interface TransactionRepository
+    extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
+  // Строки экспорта сразу в DTO: одна выборка с join категории, без сущностей в контексте
+  @Query(
+      "select new com.example.financetracker.dto.TransactionDto("
+          + "t.id, c.name, t.amount, t.description, t.date)"
+          + " from Transaction t join t.category c"
+          + " where t.wallet.id = :walletId order by t.date, t.id")
+  List<TransactionDto> findDtosByWallet(@Param("walletId") Long walletId);
+
+  // Суммы по категориям за [from, to): одна строка на категорию вместо всей истории кошелька
+  @Query(
+      "select new com.example.financetracker.dto.CategoryAmount(c.type, c.name, sum(t.amount))"
+          + " from Transaction t join t.category c"
+          + " where t.wallet.id = :walletId and t.date >= :from and t.date < :to"
+          + " group by c.type, c.name")
+  List<CategoryAmount> sumByCategory(
+      @Param("walletId") Long walletId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  // Курсор только вперёд за [from, to): строки приходят порциями по fetch size, вызывать внутри
+  // транзакции
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query(
+      "select new com.example.financetracker.dto.TransactionDto("
+          + "t.id, c.name, t.amount, t.description, t.date)"
+          + " from Transaction t join t.category c"
+          + " where t.wallet.id = :walletId and t.date >= :from and t.date < :to"
+          + " order by t.date, t.id")
+  Stream<TransactionDto> streamByWallet(
+      @Param("walletId") Long walletId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  // Месячные секции на [fromMonth, toMonth] (V9__partition_transactions.sql), число созданных
+  @Transactional
+  @Query(
+      value =
+          "SELECT create_transaction_partitions(CAST(:fromMonth AS DATE), CAST(:toMonth AS DATE))",
+      nativeQuery = true)
+  int createPartitions(
+      @Param("fromMonth") LocalDate fromMonth, @Param("toMonth") LocalDate toMonth);
+
+  // Отключает секции месяцев раньше beforeMonth, число отключённых
+  @Transactional
+  @Query(
+      value = "SELECT detach_transaction_partitions(CAST(:beforeMonth AS DATE))",
+      nativeQuery = true)
+  int detachPartitionsBefore(@Param("beforeMonth") LocalDate beforeMonth);
+
+  // Журнал: суммы delta для баланса по снимку (LedgerService)
+  @Query(
+      "select coalesce(sum(t.delta), 0) from Transaction t"
+          + " where t.wallet.id = :walletId and t.date >= :from and t.date < :to")
+  BigDecimal sumDeltaBetween(
+      @Param("walletId") Long walletId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  @Query(
+      "select coalesce(sum(t.delta), 0) from Transaction t"
+          + " where t.wallet.id = :walletId and t.date >= :from")
+  BigDecimal sumDeltaSince(@Param("walletId") Long walletId, @Param("from") LocalDateTime from);
+
+  // Записанные после снимка операции с датой до него
+  @Query(
+      value =
+          "SELECT COALESCE(SUM(delta), 0) FROM transactions"
+              + " WHERE wallet_id = :walletId AND ledger_seq > :ledgerSeq AND date < :before",
+      nativeQuery = true)
+  BigDecimal sumDeltaAfterSeq(
+      @Param("walletId") Long walletId,
+      @Param("ledgerSeq") long ledgerSeq,
+      @Param("before") LocalDateTime before);
+
+  @Query(
+      value =
+          "SELECT EXISTS (SELECT 1 FROM transactions"
+              + " WHERE wallet_id = :walletId AND ledger_seq > :ledgerSeq)",
+      nativeQuery = true)
+  boolean existsAfterSeq(@Param("walletId") Long walletId, @Param("ledgerSeq") long ledgerSeq);
+
+  // Последний выданный ledger_seq (0, пока номеров не выдавали)
+  @Query(
+      value =
+          "SELECT CASE WHEN is_called THEN last_value ELSE last_value - 1 END"
+              + " FROM transactions_ledger_seq",
+      nativeQuery = true)
+  long currentLedgerSeq();
 }
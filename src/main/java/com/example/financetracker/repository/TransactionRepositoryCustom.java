@@ -0,0 +1,19 @@
+package com.example.financetracker.repository;
+
+import com.example.financetracker.dto.TransactionDto;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface TransactionRepositoryCustom {
+
+  // Страница истории за [from, to) от новых к старым, строго после позиции (afterDate, afterId)
+  List<TransactionDto> findPage(
+      Long walletId,
+      Collection<Long> categoryIds,
+      LocalDateTime from,
+      LocalDateTime to,
+      LocalDateTime afterDate,
+      Long afterId,
+      int limit);
+}
@@ -0,0 +1,55 @@
+package com.example.financetracker.repository;
+
+import com.example.financetracker.dto.TransactionDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<TransactionDto> findPage(
+      Long walletId,
+      Collection<Long> categoryIds,
+      LocalDateTime from,
+      LocalDateTime to,
+      LocalDateTime afterDate,
+      Long afterId,
+      int limit) {
+    StringBuilder jpql =
+        new StringBuilder(
+            "select new com.example.financetracker.dto.TransactionDto("
+                + "t.id, c.name, t.amount, t.description, t.date)"
+                + " from Transaction t join t.category c"
+                + " where t.wallet.id = :walletId and t.date >= :from and t.date < :to");
+    if (categoryIds != null) {
+      jpql.append(" and t.category.id in :categoryIds");
+    }
+    if (afterDate != null) {
+      // Seek по индексу (wallet_id, date, id) вместо OFFSET: сравнение строк (date, id) — это
+      // граница диапазона индекса, а лишнее date <= :afterDate отсекает секции новее курсора
+      jpql.append(" and t.date <= :afterDate and (t.date, t.id) < (:afterDate, :afterId)");
+    }
+    jpql.append(" order by t.date desc, t.id desc");
+
+    TypedQuery<TransactionDto> query =
+        entityManager
+            .createQuery(jpql.toString(), TransactionDto.class)
+            .setParameter("walletId", walletId)
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .setMaxResults(limit);
+    if (categoryIds != null) {
+      query.setParameter("categoryIds", categoryIds);
+    }
+    if (afterDate != null) {
+      query.setParameter("afterDate", afterDate).setParameter("afterId", afterId);
+    }
+    return query.getResultList();
+  }
+}
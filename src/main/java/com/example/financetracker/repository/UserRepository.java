@@ -1,9 +1,50 @@
 package com.example.financetracker.repository;
 
+import com.example.financetracker.dto.AccountRef;
 import com.example.financetracker.entity.User;
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-  Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+  @Query(
+      "select new com.example.financetracker.dto.AccountRef(u.id, w.id, u.username)"
+          + " from User u join u.wallet w where u.username = :username")
+  Optional<AccountRef> findAccountByUsername(@Param("username") String username);
+
+  // Версия данных — сумма счётчиков пользователя в user_data_versions (V13)
+  @Query(
+      value = "SELECT COALESCE(SUM(version), 0) FROM user_data_versions WHERE user_id = :id",
+      nativeQuery = true)
+  long findDataVersion(@Param("id") Long id);
+
+  // Своё пространство запроса: изменение не сбрасывает регион users кэша второго уровня
+  @Transactional
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_data_versions"))
+  @Query(
+      value =
+          "INSERT INTO user_data_versions (user_id, shard, version) VALUES (:id, :shard, 1)"
+              + " ON CONFLICT (user_id, shard)"
+              + " DO UPDATE SET version = user_data_versions.version + 1",
+      nativeQuery = true)
+  int bumpDataVersion(@Param("id") Long id, @Param("shard") int shard);
+
+  // Пересборка сумм: версия растёт у всех пользователей, по возрастанию id
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_data_versions"))
+  @Query(
+      value =
+          "INSERT INTO user_data_versions (user_id, shard, version)"
+              + " SELECT id, 0, 1 FROM users ORDER BY id"
+              + " ON CONFLICT (user_id, shard)"
+              + " DO UPDATE SET version = user_data_versions.version + 1",
+      nativeQuery = true)
+  int bumpAllDataVersions();
 }
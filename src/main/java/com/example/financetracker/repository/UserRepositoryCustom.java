@@ -0,0 +1,10 @@
+package com.example.financetracker.repository;
+
+import com.example.financetracker.entity.User;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+  // Поиск по натуральному ключу: id берётся из кэша users-by-username, сущность — из users
+  Optional<User> findByUsername(String username);
+}
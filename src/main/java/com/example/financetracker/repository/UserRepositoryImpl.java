@@ -0,0 +1,24 @@
+package com.example.financetracker.repository;
+
+import com.example.financetracker.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Optional;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  // Сессия нужна живая на время загрузки; не readOnly — как и раньше, читается с primary,
+  // чтобы только что зарегистрированный пользователь был виден сразу
+  @Override
+  @Transactional
+  public Optional<User> findByUsername(String username) {
+    return entityManager
+        .unwrap(Session.class)
+        .bySimpleNaturalId(User.class)
+        .loadOptional(username);
+  }
+}
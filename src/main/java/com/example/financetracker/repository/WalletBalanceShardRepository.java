@@ -0,0 +1,38 @@
+package com.example.financetracker.repository;
+
+import com.example.financetracker.entity.WalletBalanceShard;
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface WalletBalanceShardRepository
+    extends JpaRepository<WalletBalanceShard, WalletBalanceShard.Key> {
+
+  @Modifying
+  @Query(
+      "update WalletBalanceShard s set s.balance = s.balance + :amount"
+          + " where s.walletId = :walletId and s.shard = :shard")
+  int credit(
+      @Param("walletId") Long walletId,
+      @Param("shard") int shard,
+      @Param("amount") BigDecimal amount);
+
+  @Modifying
+  @Query(
+      "update WalletBalanceShard s set s.balance = s.balance - :amount"
+          + " where s.walletId = :walletId and s.shard = :shard and s.balance >= :amount")
+  int debit(
+      @Param("walletId") Long walletId,
+      @Param("shard") int shard,
+      @Param("amount") BigDecimal amount);
+
+  // Все полосы кошелька под блокировкой, всегда в порядке номера полосы
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select s from WalletBalanceShard s where s.walletId = :walletId order by s.shard")
+  List<WalletBalanceShard> lockAll(@Param("walletId") Long walletId);
+}
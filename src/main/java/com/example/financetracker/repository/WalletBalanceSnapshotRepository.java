@@ -0,0 +1,16 @@
+package com.example.financetracker.repository;
+
+import com.example.financetracker.entity.WalletBalanceSnapshot;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface WalletBalanceSnapshotRepository
+    extends JpaRepository<WalletBalanceSnapshot, WalletBalanceSnapshot.Key> {
+
+  Optional<WalletBalanceSnapshot> findFirstByWalletIdOrderByAsOfDesc(Long walletId);
+
+  // Последний снимок не позже момента at
+  Optional<WalletBalanceSnapshot> findFirstByWalletIdAndAsOfLessThanEqualOrderByAsOfDesc(
+      Long walletId, LocalDateTime at);
+}
@@ -2,9 +2,69 @@ package com.example.financetracker.repository;
 
 import com.example.financetracker.entity.User;
 import com.example.financetracker.entity.Wallet;
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
   Optional<Wallet> findByUser(User user);
+
+  @Query("select w.id from Wallet w where w.user.username = :username")
+  Optional<Long> findIdByUsername(@Param("username") String username);
+
+  // Текущий баланс одним запросом: у шардированного кошелька — сумма полос.
+  // Журнальный кошелёк здесь не находится, его баланс считает LedgerService
+  @Query(
+      "select case when w.balanceShards > 1"
+          + " then (select coalesce(sum(s.balance), 0) from WalletBalanceShard s"
+          + " where s.walletId = w.id)"
+          + " else w.balance end"
+          + " from Wallet w where w.id = :id and w.ledger = false")
+  Optional<BigDecimal> findBalance(@Param("id") Long id);
+
+  @Query("select w.balanceShards from Wallet w where w.id = :id")
+  Optional<Integer> findBalanceShardsById(@Param("id") Long id);
+
+  @Query("select w.ledger from Wallet w where w.id = :id")
+  Optional<Boolean> findLedgerById(@Param("id") Long id);
+
+  @Query("select w.id from Wallet w where w.ledger = true order by w.id")
+  List<Long> findLedgerWalletIds();
+
+  // Проверка средств и списание одним UPDATE: 0 строк — средств недостаточно
+  // или кошелёк шардирован либо журнальный (см. BalanceService)
+  @Modifying
+  @Query(
+      "update Wallet w set w.balance = w.balance - :amount"
+          + " where w.id = :id and w.balanceShards <= 1 and w.ledger = false"
+          + " and w.balance >= :amount")
+  int debit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+  @Modifying
+  @Query(
+      "update Wallet w set w.balance = w.balance + :amount"
+          + " where w.id = :id and w.balanceShards <= 1 and w.ledger = false")
+  int credit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select w from Wallet w where w.id = :id")
+  Optional<Wallet> lockById(@Param("id") Long id);
+
+  // Блокировки журнального кошелька (LedgerService): зачисления берут KEY SHARE и не мешают
+  // друг другу, списания — NO KEY UPDATE (проверка средств по очереди), снимок — UPDATE
+  // и дожидается всех незавершённых записей
+  @Query(value = "SELECT id FROM wallets WHERE id = :id FOR KEY SHARE", nativeQuery = true)
+  Optional<Long> lockForCredit(@Param("id") Long id);
+
+  @Query(value = "SELECT id FROM wallets WHERE id = :id FOR NO KEY UPDATE", nativeQuery = true)
+  Optional<Long> lockForDebit(@Param("id") Long id);
+
+  @Query(value = "SELECT id FROM wallets WHERE id = :id FOR UPDATE", nativeQuery = true)
+  Optional<Long> lockForSnapshot(@Param("id") Long id);
 }
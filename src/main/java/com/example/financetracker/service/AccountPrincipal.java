@@ -0,0 +1,26 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.dto.AccountRef;
+import java.util.Collections;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.core.userdetails.User;
+
+// Аутентифицированный пользователь вместе с id пользователя и кошелька: контроллер передаёт
+// их в сервисы, и за запрос пользователь не ищется по имени ни разу
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class AccountPrincipal extends User {
+
+  private final AccountRef account;
+
+  public AccountPrincipal(AccountRef account, String password) {
+    super(account.username(), password, Collections.emptyList());
+    this.account = account;
+  }
+
+  // По токену пароль не известен и не нужен
+  public static AccountPrincipal fromToken(AccountRef account) {
+    return new AccountPrincipal(account, "");
+  }
+}
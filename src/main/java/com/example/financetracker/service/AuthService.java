@@ -1,19 +1,40 @@
 package com.example.financetracker.service;
 
+import com.example.financetracker.dto.AccountRef;
+import com.example.financetracker.dto.TokenResponse;
 import com.example.financetracker.entity.User;
 import com.example.financetracker.entity.Wallet;
 import com.example.financetracker.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import java.math.BigDecimal;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-@RequiredArgsConstructor
+@Timed(value = "auth.service", histogram = true)
 public class AuthService {
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
+  private final TokenService tokenService;
+  private final LedgerService ledgerService;
+  // Новые кошельки сразу в журнальном режиме
+  private final boolean ledgerWallets;
+
+  public AuthService(
+      UserRepository userRepository,
+      PasswordEncoder passwordEncoder,
+      TokenService tokenService,
+      LedgerService ledgerService,
+      @Value("${finance.ledger.new-wallets:false}") boolean ledgerWallets) {
+    this.userRepository = userRepository;
+    this.passwordEncoder = passwordEncoder;
+    this.tokenService = tokenService;
+    this.ledgerService = ledgerService;
+    this.ledgerWallets = ledgerWallets;
+  }
 
   @Transactional
   public void register(String username, String password) {
@@ -24,9 +45,24 @@ public class AuthService {
     User user =
         User.builder().username(username).password(passwordEncoder.encode(password)).build();
 
-    Wallet wallet = Wallet.builder().user(user).balance(BigDecimal.ZERO).build();
+    Wallet wallet =
+        Wallet.builder().user(user).balance(BigDecimal.ZERO).ledger(ledgerWallets).build();
 
     user.setWallet(wallet);
     userRepository.save(user);
+    if (ledgerWallets) {
+      ledgerService.open(wallet.getId());
+    }
+  }
+
+  // BCrypt проверяется один раз при входе, дальше клиент работает с токеном
+  public TokenResponse login(String username, String password) {
+    User user =
+        userRepository
+            .findByUsername(username)
+            .filter(u -> passwordEncoder.matches(password, u.getPassword()))
+            .orElseThrow(() -> new BadCredentialsException("Invalid username or password"));
+    AccountRef account = new AccountRef(user.getId(), user.getWallet().getId(), user.getUsername());
+    return new TokenResponse(tokenService.issue(account), tokenService.getTtl().toSeconds());
   }
 }
@@ -0,0 +1,204 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.entity.Wallet;
+import com.example.financetracker.entity.WalletBalanceShard;
+import com.example.financetracker.repository.TransactionRepository;
+import com.example.financetracker.repository.WalletBalanceShardRepository;
+import com.example.financetracker.repository.WalletRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Изменение баланса кошелька. Обычный кошелёк — одна строка wallets.balance;
+// горячий кошелёк можно разбить на N полос, тогда зачисления расходятся по случайным
+// полосам и не ждут друг друга на одной строке. Журнальный кошелёк (LedgerService)
+// строк баланса не меняет: операция сама и есть запись журнала
+@Service
+public class BalanceService {
+
+  private final WalletRepository walletRepository;
+  private final WalletBalanceShardRepository shardRepository;
+  private final TransactionRepository transactionRepository;
+  private final LedgerService ledgerService;
+  // Запоминается только число полос шардированного кошелька: шардирование включается
+  // из отдельного процесса (--shard-wallet) и не выключается, а у обычного кошелька
+  // число читается из строки wallets каждый раз — его могут шардировать в любой момент
+  private final Cache<Long, Integer> shardCounts =
+      Caffeine.newBuilder().maximumSize(10_000).build();
+  // Запоминаются только журнальные кошельки: обычный путь не подходит и при нехватке
+  // средств, а такой кошелёк ещё могут перевести в журнальный режим
+  private final Cache<Long, Boolean> ledgerWallets =
+      Caffeine.newBuilder().maximumSize(10_000).build();
+
+  public BalanceService(
+      WalletRepository walletRepository,
+      WalletBalanceShardRepository shardRepository,
+      TransactionRepository transactionRepository,
+      LedgerService ledgerService) {
+    this.walletRepository = walletRepository;
+    this.shardRepository = shardRepository;
+    this.transactionRepository = transactionRepository;
+    this.ledgerService = ledgerService;
+  }
+
+  @Transactional
+  public void credit(Long walletId, BigDecimal amount) {
+    // UPDATE по обычному кошельку не затрагивает (и не блокирует) шардированный
+    if (walletRepository.credit(walletId, amount) == 1) {
+      return;
+    }
+    if (isLedger(walletId)) {
+      ledgerService.credit(walletId);
+      return;
+    }
+    int shards = shardCount(walletId);
+    shardRepository.credit(walletId, ThreadLocalRandom.current().nextInt(shards), amount);
+  }
+
+  @Transactional
+  public void debit(Long walletId, BigDecimal amount) {
+    if (walletRepository.debit(walletId, amount) == 1) {
+      return;
+    }
+    if (isLedger(walletId)) {
+      ledgerService.debit(walletId, amount);
+      return;
+    }
+    int shards = shardCount(walletId);
+    if (shards <= 1 || !debitShards(walletId, shards, amount)) {
+      throw new RuntimeException("Insufficient funds");
+    }
+  }
+
+  // Операции без изменения баланса (пачка с нулевым итогом): у журнального кошелька они
+  // всё равно записи журнала и берут ту же блокировку, что и зачисление, — иначе снимок
+  // под FOR UPDATE не дождался бы их коммита. Обычному и шардированному ничего не нужно
+  @Transactional
+  public void lockForEntries(Long walletId) {
+    if (isLedger(walletId)) {
+      ledgerService.credit(walletId);
+    }
+  }
+
+  public BigDecimal getBalance(Long walletId) {
+    return walletRepository
+        .findBalance(walletId)
+        .orElseGet(
+            () -> {
+              if (!isLedger(walletId)) {
+                throw new RuntimeException("Wallet not found");
+              }
+              return ledgerService.getBalance(walletId);
+            });
+  }
+
+  // Баланс с учётом операций с датой до at
+  public BigDecimal getBalanceAt(Long walletId, LocalDateTime at) {
+    Optional<BigDecimal> current = walletRepository.findBalance(walletId);
+    if (current.isPresent()) {
+      // Без снимков: от текущего баланса отнимаются операции с датой at и позже
+      return current.get().subtract(transactionRepository.sumDeltaSince(walletId, at));
+    }
+    if (!isLedger(walletId)) {
+      throw new RuntimeException("Wallet not found");
+    }
+    return ledgerService.getBalanceAt(walletId, at);
+  }
+
+  // Переносит текущий баланс в полосу 0 и создаёт остальные полосы с нулём
+  @Transactional
+  public void enableSharding(Long walletId, int shards) {
+    if (shards < 2) {
+      throw new RuntimeException("Shard count must be at least 2");
+    }
+    Wallet wallet =
+        walletRepository
+            .lockById(walletId)
+            .orElseThrow(() -> new RuntimeException("Wallet not found"));
+    if (wallet.getBalanceShards() > 1) {
+      throw new RuntimeException("Wallet is already sharded");
+    }
+    if (wallet.isLedger()) {
+      throw new RuntimeException("Ledger wallet cannot be sharded");
+    }
+
+    List<WalletBalanceShard> rows = new ArrayList<>(shards);
+    for (int shard = 0; shard < shards; shard++) {
+      rows.add(
+          WalletBalanceShard.builder()
+              .walletId(walletId)
+              .shard(shard)
+              .balance(shard == 0 ? wallet.getBalance() : BigDecimal.ZERO)
+              .build());
+    }
+    shardRepository.saveAll(rows);
+    wallet.setBalance(BigDecimal.ZERO);
+    wallet.setBalanceShards(shards);
+  }
+
+  // Сначала пробуем списать с одной случайной полосы. Если в ней не хватает, блокируем
+  // все полосы по порядку номера (тот же порядок у всех списаний — без дедлоков),
+  // проверяем сумму и списываем из полос по очереди
+  private boolean debitShards(Long walletId, int shards, BigDecimal amount) {
+    int first = ThreadLocalRandom.current().nextInt(shards);
+    if (shardRepository.debit(walletId, first, amount) == 1) {
+      return true;
+    }
+
+    List<WalletBalanceShard> rows = shardRepository.lockAll(walletId);
+    BigDecimal total =
+        rows.stream().map(WalletBalanceShard::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+    if (total.compareTo(amount) < 0) {
+      return false;
+    }
+
+    BigDecimal remaining = amount;
+    for (WalletBalanceShard row : rows) {
+      if (remaining.signum() == 0) {
+        break;
+      }
+      BigDecimal take = row.getBalance().min(remaining);
+      if (take.signum() > 0) {
+        shardRepository.debit(walletId, row.getShard(), take);
+        remaining = remaining.subtract(take);
+      }
+    }
+    return true;
+  }
+
+  private boolean isLedger(Long walletId) {
+    if (ledgerWallets.getIfPresent(walletId) != null) {
+      return true;
+    }
+    boolean ledger =
+        walletRepository
+            .findLedgerById(walletId)
+            .orElseThrow(() -> new RuntimeException("Wallet not found"));
+    if (ledger) {
+      ledgerWallets.put(walletId, Boolean.TRUE);
+    }
+    return ledger;
+  }
+
+  private int shardCount(Long walletId) {
+    Integer cached = shardCounts.getIfPresent(walletId);
+    if (cached != null) {
+      return cached;
+    }
+    int shards =
+        walletRepository
+            .findBalanceShardsById(walletId)
+            .orElseThrow(() -> new RuntimeException("Wallet not found"));
+    if (shards > 1) {
+      shardCounts.put(walletId, shards);
+    }
+    return shards;
+  }
+}
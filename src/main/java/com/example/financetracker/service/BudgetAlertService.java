@@ -0,0 +1,123 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.dto.BudgetAlert;
+import com.example.financetracker.entity.Category;
+import com.example.financetracker.repository.CategoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Проверка бюджета вне пути записи: после коммита расхода, на собственном ограниченном пуле.
+// О пересечении 80% и 100% лимита клиенты узнают из SSE-потока.
+// Метрики пула: executor.*{name=budget}
+@Slf4j
+@Service
+public class BudgetAlertService implements MeterBinder {
+
+  static final int[] THRESHOLDS = {80, 100};
+
+  private final CategoryRepository categoryRepository;
+  private final BudgetAlertStream alertStream;
+  private final FinanceMetrics metrics;
+  private final ThreadPoolExecutor executor;
+
+  public BudgetAlertService(
+      CategoryRepository categoryRepository,
+      BudgetAlertStream alertStream,
+      FinanceMetrics metrics,
+      @Value("${finance.budget.executor.threads:2}") int threads,
+      @Value("${finance.budget.executor.queue-capacity:1000}") int queueCapacity) {
+    this.categoryRepository = categoryRepository;
+    this.alertStream = alertStream;
+    this.metrics = metrics;
+    // При переполнении очереди проверка отбрасывается, а не задерживает коммит запроса
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("budget-", 0).daemon().factory(),
+            (task, pool) -> log.warn("Budget check dropped: queue of {} is full", queueCapacity));
+  }
+
+  public SseEmitter subscribe(Long userId) {
+    return alertStream.subscribe(userId);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onExpenseRecorded(ExpenseRecordedEvent event) {
+    executor.execute(
+        () -> {
+          try {
+            evaluate(event);
+          } catch (RuntimeException e) {
+            log.warn("Budget check failed for category {}", event.categoryId(), e);
+          }
+        });
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    new ExecutorServiceMetrics(executor, "budget", List.of()).bindTo(registry);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  void evaluate(ExpenseRecordedEvent event) {
+    // Категория из кэша второго уровня Hibernate
+    Category category = categoryRepository.findById(event.categoryId()).orElse(null);
+    if (category == null || category.getBudgetLimit() == null) {
+      return;
+    }
+
+    long before = Money.minorUnits(event.spentBefore());
+    long spent = Money.minorUnits(event.spentAfter());
+    long limit = Money.minorUnits(category.getBudgetLimit());
+
+    int threshold = crossedThreshold(limit, before, spent);
+    if (threshold == 0) {
+      return;
+    }
+    if (threshold >= 100) {
+      metrics.budgetExceeded();
+    }
+    alertStream.publish(
+        event.userId(),
+        new BudgetAlert(
+            category.getName(),
+            threshold,
+            category.getBudgetLimit(),
+            Money.toBigDecimal(spent),
+            Money.toBigDecimal(Money.subtract(limit, spent))));
+  }
+
+  // Наибольший порог (в процентах лимита), который траты пересекли при переходе
+  // от before к after; 0 — ни один
+  static int crossedThreshold(long limit, long before, long after) {
+    for (int i = THRESHOLDS.length - 1; i >= 0; i--) {
+      int percent = THRESHOLDS[i];
+      // limit * percent / 100 без переполнения для сумм до NUMERIC(19,2)
+      long boundary = limit / 100 * percent + limit % 100 * percent / 100;
+      if (before < boundary && after >= boundary) {
+        return percent;
+      }
+    }
+    return 0;
+  }
+}
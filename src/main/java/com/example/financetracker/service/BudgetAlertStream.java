@@ -0,0 +1,66 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.dto.BudgetAlert;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Подписки на уведомления о бюджете (SSE) в памяти процесса, по id пользователя
+@Slf4j
+@Component
+public class BudgetAlertStream {
+
+  private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+  private final long timeoutMillis;
+
+  public BudgetAlertStream(@Value("${finance.budget.sse-timeout:30m}") Duration timeout) {
+    this.timeoutMillis = timeout.toMillis();
+  }
+
+  public SseEmitter subscribe(Long userId) {
+    SseEmitter emitter = new SseEmitter(timeoutMillis);
+    emitters.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+    emitter.onCompletion(() -> remove(userId, emitter));
+    emitter.onTimeout(() -> remove(userId, emitter));
+    emitter.onError(e -> remove(userId, emitter));
+    return emitter;
+  }
+
+  public void publish(Long userId, BudgetAlert alert) {
+    List<SseEmitter> subscribers = emitters.get(userId);
+    if (subscribers == null) {
+      return;
+    }
+    for (SseEmitter emitter : subscribers) {
+      try {
+        emitter.send(SseEmitter.event().name("budget").data(alert));
+      } catch (IOException | IllegalStateException e) {
+        // Клиент отключился: соединение закрываем, подписку убираем
+        log.debug("Dropping budget subscriber of user {}: {}", userId, e.getMessage());
+        remove(userId, emitter);
+        emitter.completeWithError(e);
+      }
+    }
+  }
+
+  int subscriberCount(Long userId) {
+    List<SseEmitter> subscribers = emitters.get(userId);
+    return subscribers != null ? subscribers.size() : 0;
+  }
+
+  private void remove(Long userId, SseEmitter emitter) {
+    emitters.computeIfPresent(
+        userId,
+        (id, list) -> {
+          list.remove(emitter);
+          return list.isEmpty() ? null : list;
+        });
+  }
+}
@@ -0,0 +1,119 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.entity.Category;
+import com.example.financetracker.entity.TransactionType;
+import com.example.financetracker.repository.CategoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Категории пользователя в памяти процесса с индексами по имени и (имя, тип).
+// Запись помечена версией данных (DataVersionService), прочитанной до загрузки категорий,
+// поэтому категории в ней не старее этой версии. Ограничен по числу пользователей и TTL;
+// метрики попаданий: cache.gets{cache=categories}
+@Component
+public class CategoryCache implements MeterBinder {
+
+  private final CategoryRepository categoryRepository;
+  private final DataVersionService dataVersions;
+  private final Cache<Long, UserCategories> cache;
+
+  public CategoryCache(
+      CategoryRepository categoryRepository,
+      DataVersionService dataVersions,
+      @Value("${finance.cache.categories.max-users:10000}") long maxUsers,
+      @Value("${finance.cache.categories.ttl:10m}") Duration ttl) {
+    this.categoryRepository = categoryRepository;
+    this.dataVersions = dataVersions;
+    this.cache =
+        Caffeine.newBuilder().maximumSize(maxUsers).expireAfterWrite(ttl).recordStats().build();
+  }
+
+  // Для чтений, запоминаемых по версии (отчёты, список категорий): запись старше version
+  // перечитывается, иначе ответ новой версии собрался бы из категорий до коммита
+  public List<Category> getAll(Long userId, long version) {
+    UserCategories categories = cache.get(userId, this::load);
+    if (categories.version() < version) {
+      cache.invalidate(userId);
+      categories = cache.get(userId, this::load);
+    }
+    return categories.all();
+  }
+
+  // Имя может быть и у расхода, и у дохода — берётся первая по id. Категории нет в записи —
+  // запись перечитывается один раз: категория могла появиться в другом экземпляре
+  public Optional<Category> findByName(Long userId, String name) {
+    Category category = cache.get(userId, this::load).byName().get(name);
+    if (category == null) {
+      cache.invalidate(userId);
+      category = cache.get(userId, this::load).byName().get(name);
+    }
+    return Optional.ofNullable(category);
+  }
+
+  public Optional<Category> find(Long userId, String name, TransactionType type) {
+    NameAndType key = new NameAndType(name, type);
+    Category category = cache.get(userId, this::load).byNameAndType().get(key);
+    if (category == null) {
+      cache.invalidate(userId);
+      category = cache.get(userId, this::load).byNameAndType().get(key);
+    }
+    return Optional.ofNullable(category);
+  }
+
+  // Сбрасываем сразу и после завершения транзакции, чтобы параллельное чтение
+  // не оставило в кэше состояние до коммита
+  public void invalidate(Long userId) {
+    cache.invalidate(userId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              cache.invalidate(userId);
+            }
+          });
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, cache, "categories");
+  }
+
+  // Версия читается до категорий, в той же транзакции
+  private UserCategories load(Long userId) {
+    long version = dataVersions.current(userId);
+    List<Category> all =
+        categoryRepository.findByUserId(userId).stream()
+            .sorted(Comparator.comparing(Category::getId, Comparator.nullsLast(Long::compare)))
+            .toList();
+    Map<String, Category> byName = new HashMap<>();
+    Map<NameAndType, Category> byNameAndType = new HashMap<>();
+    for (Category c : all) {
+      byName.putIfAbsent(c.getName(), c);
+      byNameAndType.putIfAbsent(new NameAndType(c.getName(), c.getType()), c);
+    }
+    return new UserCategories(version, all, byName, byNameAndType);
+  }
+
+  private record NameAndType(String name, TransactionType type) {}
+
+  private record UserCategories(
+      long version,
+      List<Category> all,
+      Map<String, Category> byName,
+      Map<NameAndType, Category> byNameAndType) {}
+}
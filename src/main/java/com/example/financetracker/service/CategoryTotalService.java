@@ -0,0 +1,32 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.dto.CategoryTotalDrift;
+import com.example.financetracker.repository.CategoryTotalRepository;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Обслуживание счётчиков category_totals: проверка и пересборка из transactions
+@Service
+@RequiredArgsConstructor
+public class CategoryTotalService {
+
+  private final CategoryTotalRepository categoryTotalRepository;
+  private final DataVersionService dataVersions;
+
+  @Transactional(readOnly = true)
+  public List<CategoryTotalDrift> verify() {
+    return categoryTotalRepository.findDrift();
+  }
+
+  @Transactional
+  public int rebuild() {
+    categoryTotalRepository.lockForRebuild();
+    categoryTotalRepository.deleteAllInBatch();
+    int rows = categoryTotalRepository.insertFromTransactions();
+    // Отчёты за всё время читают category_totals: ETag всех пользователей устаревает
+    dataVersions.bumpAll();
+    return rows;
+  }
+}
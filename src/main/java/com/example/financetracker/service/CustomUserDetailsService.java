@@ -1,8 +1,8 @@
 package com.example.financetracker.service;
 
+import com.example.financetracker.dto.AccountRef;
 import com.example.financetracker.entity.User;
 import com.example.financetracker.repository.UserRepository;
-import java.util.Collections;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -22,7 +22,9 @@ public class CustomUserDetailsService implements UserDetailsService {
             .findByUsername(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-    return new org.springframework.security.core.userdetails.User(
-        user.getUsername(), user.getPassword(), Collections.emptyList());
+    // id кошелька запоминается в принципале, дальше запрос пользователя не ищет
+    return new AccountPrincipal(
+        new AccountRef(user.getId(), user.getWallet().getId(), user.getUsername()),
+        user.getPassword());
   }
 }
@@ -0,0 +1,121 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Версия данных пользователя для условных GET: сумма счётчиков user_data_versions, каждое
+// изменение операций или категорий увеличивает один из них на единицу. Ответы чтения
+// запоминаются по (пользователь, версия, представление) — после изменения старые ключи
+// просто вытесняются
+@Service
+public class DataVersionService implements MeterBinder {
+
+  private final UserRepository userRepository;
+  private final int shards;
+  private final Cache<Memo, Object> memos;
+
+  public DataVersionService(
+      UserRepository userRepository,
+      @Value("${finance.etag.cache-size:10000}") long cacheSize,
+      @Value("${finance.etag.version-shards:8}") int shards) {
+    if (shards < 1) {
+      throw new IllegalArgumentException("finance.etag.version-shards must be positive");
+    }
+    this.userRepository = userRepository;
+    this.shards = shards;
+    this.memos = Caffeine.newBuilder().maximumSize(cacheSize).recordStats().build();
+  }
+
+  // Внутри транзакции версия растёт перед самым коммитом, вместе с данными. Счётчик
+  // выбирается случайно: параллельные записи одного пользователя чаще всего блокируют
+  // разные строки, и только на время коммита. Несколько изменений одного пользователя
+  // дают одно увеличение; пользователи обновляются по возрастанию id, без дедлоков
+  public void bump(Long userId) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      increment(userId);
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      Set<Long> users = new TreeSet<>();
+      TransactionSynchronizationManager.bindResource(this, users);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+              users.forEach(DataVersionService.this::increment);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+              TransactionSynchronizationManager.unbindResource(DataVersionService.this);
+            }
+          });
+      pending = users;
+    }
+    pending.add(userId);
+  }
+
+  // Служебные пересборки меняют данные всех пользователей; вызывается в их транзакции
+  public void bumpAll() {
+    userRepository.bumpAllDataVersions();
+  }
+
+  // Читать в той же транзакции, что и данные, и до них: тогда данные не старее версии
+  public long current(Long userId) {
+    return userRepository.findDataVersion(userId);
+  }
+
+  // Одновременные запросы одного ключа ждут одного вычисления
+  @SuppressWarnings("unchecked")
+  public <T> T memoize(Long userId, long version, String view, Supplier<T> compute) {
+    return (T) memos.get(new Memo(userId, version, view), key -> compute.get());
+  }
+
+  // Сильный ETag из версии
+  public static String etag(long version) {
+    return "\"" + version + "\"";
+  }
+
+  // If-None-Match: список тегов через запятую или *; сравнение слабое (RFC 9110, 13.1.2)
+  public static boolean matches(String ifNoneMatch, long version) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    String expected = etag(version);
+    for (String tag : ifNoneMatch.split(",")) {
+      String value = tag.trim();
+      if (value.startsWith("W/")) {
+        value = value.substring(2);
+      }
+      if (value.equals("*") || value.equals(expected)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void increment(Long userId) {
+    userRepository.bumpDataVersion(userId, ThreadLocalRandom.current().nextInt(shards));
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, memos, "etag.responses");
+  }
+
+  private record Memo(Long userId, long version, String view) {}
+}
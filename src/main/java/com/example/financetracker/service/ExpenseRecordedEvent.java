@@ -0,0 +1,9 @@
+package com.example.financetracker.service;
+
+import java.math.BigDecimal;
+
+// Расход по категории с бюджетом записан; для пачки — одно событие на категорию.
+// Траты до и после — из приращения category_totals в той же транзакции: параллельный расход
+// по категории не сдвигает их, и порог пересекает ровно одно событие
+public record ExpenseRecordedEvent(
+    Long userId, Long walletId, Long categoryId, BigDecimal spentBefore, BigDecimal spentAfter) {}
@@ -0,0 +1,114 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.dto.AccountRef;
+import com.example.financetracker.dto.TransactionDto;
+import com.example.financetracker.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Потоковый экспорт: строки пишутся в ответ по мере чтения курсора, память не растёт с историей
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+  private static final int FLUSH_EVERY = 500;
+
+  private final TransactionRepository transactionRepository;
+  private final ObjectMapper objectMapper;
+
+  public enum Format {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson")),
+    CSV(MediaType.parseMediaType("text/csv; charset=UTF-8"));
+
+    private final MediaType mediaType;
+
+    Format(MediaType mediaType) {
+      this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+      return mediaType;
+    }
+
+    public static Format parse(String value) {
+      try {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        throw new RuntimeException("Unsupported export format: " + value);
+      }
+    }
+  }
+
+  @Transactional(readOnly = true)
+  public void export(
+      AccountRef account, LocalDateTime from, LocalDateTime to, Format format, OutputStream out)
+      throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    if (format == Format.CSV) {
+      writer.write("id,date,category,amount,description\n");
+    }
+
+    // Курсор отдаёт готовые DTO: сущности не попадают в контекст и не копятся в нём
+    try (Stream<TransactionDto> rows =
+        transactionRepository.streamByWallet(
+            account.walletId(),
+            from != null ? from : FinanceService.MIN_DATE,
+            to != null ? to : FinanceService.MAX_DATE)) {
+      Iterator<TransactionDto> it = rows.iterator();
+      int written = 0;
+      while (it.hasNext()) {
+        TransactionDto dto = it.next();
+
+        if (format == Format.CSV) {
+          writeCsv(writer, dto);
+        } else {
+          writer.write(objectMapper.writeValueAsString(dto));
+          writer.write('\n');
+        }
+        if (++written % FLUSH_EVERY == 0) {
+          writer.flush();
+        }
+      }
+    }
+    writer.flush();
+  }
+
+  private void writeCsv(Writer writer, TransactionDto dto) throws IOException {
+    writer.write(String.valueOf(dto.getId()));
+    writer.write(',');
+    writer.write(String.valueOf(dto.getDate()));
+    writer.write(',');
+    writer.write(escapeCsv(dto.getCategoryName()));
+    writer.write(',');
+    writer.write(dto.getAmount().toPlainString());
+    writer.write(',');
+    writer.write(escapeCsv(dto.getDescription()));
+    writer.write('\n');
+  }
+
+  static String escapeCsv(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') < 0
+        && value.indexOf('"') < 0
+        && value.indexOf('\n') < 0
+        && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
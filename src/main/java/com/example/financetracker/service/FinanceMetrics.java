@@ -0,0 +1,41 @@
+package com.example.financetracker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+// Бизнес-счётчики: завершённые переводы, их повторы и превышения бюджета
+@Component
+public class FinanceMetrics {
+
+  private final Counter transfers;
+  private final Counter transferRetries;
+  private final Counter budgetExceeded;
+
+  public FinanceMetrics(MeterRegistry registry) {
+    this.transfers =
+        Counter.builder("finance.transfers")
+            .description("Completed transfers")
+            .register(registry);
+    this.transferRetries =
+        Counter.builder("finance.transfer.retries")
+            .description("Transfer attempts retried after a concurrency failure")
+            .register(registry);
+    this.budgetExceeded =
+        Counter.builder("finance.budget.exceeded")
+            .description("Expenses that left a category over its budget")
+            .register(registry);
+  }
+
+  public void transferCompleted() {
+    transfers.increment();
+  }
+
+  public void transferRetried() {
+    transferRetries.increment();
+  }
+
+  public void budgetExceeded() {
+    budgetExceeded.increment();
+  }
+}
@@ -1,43 +1,76 @@
 package com.example.financetracker.service;
 
+import com.example.financetracker.dto.AccountRef;
+import com.example.financetracker.dto.BalanceResponse;
+import com.example.financetracker.dto.BulkTransactionResponse;
+import com.example.financetracker.dto.CategoryAmount;
 import com.example.financetracker.dto.CategoryDto;
+import com.example.financetracker.dto.CategoryResponse;
 import com.example.financetracker.dto.StatsResponse;
 import com.example.financetracker.dto.TransactionDto;
+import com.example.financetracker.dto.TransactionPage;
 import com.example.financetracker.dto.TransactionResponse;
 import com.example.financetracker.dto.TransferRequest;
+import com.example.financetracker.dto.Versioned;
 import com.example.financetracker.entity.Category;
 import com.example.financetracker.entity.Transaction;
 import com.example.financetracker.entity.TransactionType;
 import com.example.financetracker.entity.User;
 import com.example.financetracker.entity.Wallet;
 import com.example.financetracker.repository.CategoryRepository;
+import com.example.financetracker.repository.CategoryTotalRepository;
 import com.example.financetracker.repository.TransactionRepository;
 import com.example.financetracker.repository.UserRepository;
 import com.example.financetracker.repository.WalletRepository;
+import io.micrometer.core.annotation.Timed;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
+import java.util.function.LongPredicate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "finance.service", histogram = true)
 public class FinanceService {
 
   private final UserRepository userRepository;
   private final WalletRepository walletRepository;
   private final CategoryRepository categoryRepository;
   private final TransactionRepository transactionRepository;
+  private final CategoryTotalRepository categoryTotalRepository;
+  private final CategoryCache categoryCache;
+  private final BalanceService balanceService;
+  private final RollupService rollupService;
+  private final ApplicationEventPublisher events;
+  private final DataVersionService dataVersions;
 
   private static final String TRANSFER_CATEGORY_NAME = "Переводы";
 
+  // Границы периода, если from/to не переданы
+  static final LocalDateTime MIN_DATE = LocalDateTime.of(1900, 1, 1, 0, 0);
+  static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+  private static final int MAX_PAGE_SIZE = 500;
+
   // Категории (Создание + Редактирование)
+  @Transactional
   public Category createCategory(String username, CategoryDto dto) {
-    User user = getUser(username);
+    return createCategory(getAccount(username), dto);
+  }
+
+  // Пользователь — ссылка по id из принципала, строка users не читается
+  @Transactional
+  public Category createCategory(AccountRef account, CategoryDto dto) {
+    User user = userRepository.getReferenceById(account.userId());
     if (categoryRepository
         .findByNameAndUserAndType(dto.getName(), user, dto.getType())
         .isPresent()) {
@@ -50,56 +83,84 @@ public class FinanceService {
             .budgetLimit(dto.getBudgetLimit())
             .user(user)
             .build();
-    return categoryRepository.save(category);
+    Category saved = categoryRepository.save(category);
+    categoryCache.invalidate(account.userId());
+    dataVersions.bump(account.userId());
+    return saved;
   }
 
   // Редактирование бюджета и имени
   @Transactional
   public Category updateCategory(String username, Long categoryId, CategoryDto dto) {
-    User user = getUser(username);
+    return updateCategory(getAccount(username), categoryId, dto);
+  }
+
+  @Transactional
+  public Category updateCategory(AccountRef account, Long categoryId, CategoryDto dto) {
     Category category =
         categoryRepository
             .findById(categoryId)
             .orElseThrow(() -> new RuntimeException("Category not found"));
 
-    if (!category.getUser().getId().equals(user.getId())) {
+    // id владельца берётся из прокси, пользователь не загружается
+    if (!category.getUser().getId().equals(account.userId())) {
       throw new RuntimeException("Access denied");
     }
 
     category.setName(dto.getName());
     category.setBudgetLimit(dto.getBudgetLimit());
-    return categoryRepository.save(category);
+    Category saved = categoryRepository.save(category);
+    categoryCache.invalidate(account.userId());
+    dataVersions.bump(account.userId());
+    return saved;
+  }
+
+  @Transactional(readOnly = true)
+  public List<CategoryResponse> getCategories(String username) {
+    Long userId = getAccount(username).userId();
+    return categories(userId, dataVersions.current(userId));
   }
 
-  public List<Category> getCategories(String username) {
-    return categoryRepository.findByUser(getUser(username));
+  // Условный GET: unchanged проверяет версию до чтения категорий
+  @Transactional(readOnly = true)
+  public Versioned<List<CategoryResponse>> getCategories(String username, LongPredicate unchanged) {
+    return getCategories(getAccount(username), unchanged);
+  }
+
+  @Transactional(readOnly = true)
+  public Versioned<List<CategoryResponse>> getCategories(
+      AccountRef account, LongPredicate unchanged) {
+    Long userId = account.userId();
+    long version = dataVersions.current(userId);
+    if (unchanged.test(version)) {
+      return new Versioned<>(version, null);
+    }
+    return new Versioned<>(
+        version,
+        dataVersions.memoize(userId, version, "categories", () -> categories(userId, version)));
   }
 
   // Транзакции
   @Transactional
   public TransactionResponse addTransaction(String username, TransactionDto dto) {
-    User user = getUser(username);
-    Wallet wallet = user.getWallet();
+    return addTransaction(getAccount(username), dto);
+  }
 
-    List<Category> categories =
-        categoryRepository.findByUser(user).stream()
-            .filter(c -> c.getName().equals(dto.getCategoryName()))
-            .toList();
+  // Кошелёк — ссылка без SELECT: баланс меняется UPDATE по id, операции нужен только ключ
+  @Transactional
+  public TransactionResponse addTransaction(AccountRef account, TransactionDto dto) {
+    Long walletId = account.walletId();
+    Wallet wallet = walletRepository.getReferenceById(walletId);
 
-    if (categories.isEmpty()) {
-      throw new RuntimeException("Category not found: " + dto.getCategoryName());
-    }
-    Category category = categories.get(0);
+    Category category = findCategory(account.userId(), dto.getCategoryName());
 
     BigDecimal amount = dto.getAmount();
 
+    // Баланс меняется атомарным UPDATE, а не через прочитанное значение сущности
     if (category.getType() == TransactionType.EXPENSE) {
-      if (wallet.getBalance().compareTo(amount) < 0) {
-        throw new RuntimeException("Insufficient funds");
-      }
-      wallet.setBalance(wallet.getBalance().subtract(amount));
+      balanceService.debit(walletId, amount);
     } else {
-      wallet.setBalance(wallet.getBalance().add(amount));
+      balanceService.credit(walletId, amount);
     }
 
     Transaction transaction =
@@ -107,96 +168,317 @@ public class FinanceService {
             .wallet(wallet)
             .category(category)
             .amount(amount)
+            .delta(delta(category, amount))
             .description(dto.getDescription())
             .date(dto.getDate() != null ? dto.getDate() : LocalDateTime.now())
             .build();
     transactionRepository.save(transaction);
+    BigDecimal spent = categoryTotalRepository.add(walletId, category.getId(), amount);
+    rollupService.add(walletId, category.getId(), transaction.getDate(), amount);
+
+    TransactionResponse response = new TransactionResponse();
+    response.setMessage("Success");
+    response.setTransaction(dto);
 
-    return buildResponse(wallet, category, dto);
+    // Остаток бюджета — из приращения category_totals выше, без запросов. Уведомления
+    // о порогах шлёт BudgetAlertService после коммита, ответ этого не ждёт
+    if (category.getType() == TransactionType.EXPENSE && category.getBudgetLimit() != null) {
+      BigDecimal remaining = category.getBudgetLimit().subtract(spent);
+      response.setRemainingBudget(remaining);
+      if (remaining.signum() < 0) {
+        response.setMessage(budgetWarning(category));
+      }
+      events.publishEvent(
+          new ExpenseRecordedEvent(
+              account.userId(), walletId, category.getId(), spent.subtract(amount), spent));
+    }
+    dataVersions.bump(account.userId());
+    return response;
+  }
+
+  // Пакетная загрузка: пользователь и категории разрешаются один раз,
+  // баланс меняется на итоговую сумму, INSERT уходят JDBC-батчами
+  @Transactional
+  public BulkTransactionResponse addTransactions(String username, List<TransactionDto> dtos) {
+    return addTransactions(getAccount(username), dtos);
+  }
+
+  @Transactional
+  public BulkTransactionResponse addTransactions(AccountRef account, List<TransactionDto> dtos) {
+    Long walletId = account.walletId();
+    Wallet wallet = walletRepository.getReferenceById(walletId);
+
+    // Суммы копятся в long-копейках, в BigDecimal переводятся только для запросов
+    long net = 0;
+    // Строки сумм категорий (category_totals, дни, месяцы) блокируются в порядке id категории
+    // и дня: у шардированного кошелька пачки не выстраивает блокировка строки wallets, и
+    // встречный порядок категорий в двух пачках дал бы дедлок
+    Map<Long, long[]> amountByCategory = new TreeMap<>();
+    // Одно приращение на (категория, день)
+    Map<Long, Map<LocalDate, long[]>> amountByCategoryAndDay = new TreeMap<>();
+    Map<Long, Category> budgeted = new TreeMap<>();
+    List<Transaction> transactions = new ArrayList<>(dtos.size());
+    LocalDateTime now = LocalDateTime.now();
+
+    // Категория каждого имени ищется один раз на пачку
+    Map<String, Category> byName = new HashMap<>();
+    for (TransactionDto dto : dtos) {
+      Category category =
+          byName.computeIfAbsent(
+              dto.getCategoryName(), name -> findCategory(account.userId(), name));
+      BigDecimal amount = dto.getAmount();
+      long minor = Money.minorUnits(amount);
+      net =
+          category.getType() == TransactionType.EXPENSE
+              ? Money.subtract(net, minor)
+              : Money.add(net, minor);
+      LocalDateTime date = dto.getDate() != null ? dto.getDate() : now;
+      long[] byCategory = amountByCategory.computeIfAbsent(category.getId(), id -> new long[1]);
+      byCategory[0] = Money.add(byCategory[0], minor);
+      long[] byDay =
+          amountByCategoryAndDay
+              .computeIfAbsent(category.getId(), id -> new TreeMap<>())
+              .computeIfAbsent(date.toLocalDate(), day -> new long[1]);
+      byDay[0] = Money.add(byDay[0], minor);
+      if (category.getType() == TransactionType.EXPENSE && category.getBudgetLimit() != null) {
+        budgeted.put(category.getId(), category);
+      }
+
+      transactions.add(
+          Transaction.builder()
+              .wallet(wallet)
+              .category(category)
+              .amount(amount)
+              .delta(delta(category, amount))
+              .description(dto.getDescription())
+              .date(date)
+              .build());
+    }
+
+    // Средства проверяются по итоговому изменению баланса всей пачки
+    if (net < 0) {
+      balanceService.debit(walletId, Money.toBigDecimal(Money.subtract(0, net)));
+    } else if (net > 0) {
+      balanceService.credit(walletId, Money.toBigDecimal(net));
+    } else if (!transactions.isEmpty()) {
+      balanceService.lockForEntries(walletId);
+    }
+
+    transactionRepository.saveAll(transactions);
+    Map<Long, BigDecimal> spentByCategory = new HashMap<>();
+    amountByCategory.forEach(
+        (categoryId, amount) ->
+            spentByCategory.put(
+                categoryId,
+                categoryTotalRepository.add(walletId, categoryId, Money.toBigDecimal(amount[0]))));
+    amountByCategoryAndDay.forEach(
+        (categoryId, byDay) ->
+            byDay.forEach(
+                (day, amount) ->
+                    rollupService.add(
+                        walletId,
+                        categoryId,
+                        day.atStartOfDay(),
+                        Money.toBigDecimal(amount[0]))));
+
+    // Превышенные бюджеты — в ответе, по итогам приращений category_totals; уведомления
+    // шлются после коммита, по одному событию на категорию пачки
+    List<String> warnings = new ArrayList<>();
+    for (Category category : budgeted.values()) {
+      BigDecimal spent = spentByCategory.get(category.getId());
+      BigDecimal amount = Money.toBigDecimal(amountByCategory.get(category.getId())[0]);
+      if (category.getBudgetLimit().compareTo(spent) < 0) {
+        warnings.add(budgetWarning(category));
+      }
+      events.publishEvent(
+          new ExpenseRecordedEvent(
+              account.userId(), walletId, category.getId(), spent.subtract(amount), spent));
+    }
+
+    dataVersions.bump(account.userId());
+
+    BulkTransactionResponse response = new BulkTransactionResponse();
+    response.setInserted(transactions.size());
+    response.setWarnings(warnings);
+    return response;
   }
 
   // Переводы
   @Transactional
   public void transfer(String senderName, TransferRequest request) {
-    User sender = getUser(senderName);
-    User receiver =
-        userRepository
-            .findByUsername(request.getReceiverUsername())
-            .orElseThrow(() -> new RuntimeException("Receiver not found"));
+    transfer(
+        getAccount(senderName), getReceiver(request.getReceiverUsername()), request.getAmount());
+  }
 
-    if (sender.getId().equals(receiver.getId())) {
+  // Получателя TransferEngine ищет по имени один раз, до транзакции и повторов
+  @Transactional
+  public void transfer(AccountRef sender, AccountRef receiver, BigDecimal amount) {
+    if (sender.userId().equals(receiver.userId())) {
       throw new RuntimeException("Cannot transfer to self");
     }
 
-    Wallet senderWallet = sender.getWallet();
-    Wallet receiverWallet = receiver.getWallet();
-    BigDecimal amount = request.getAmount();
+    Long senderWalletId = sender.walletId();
+    Long receiverWalletId = receiver.walletId();
 
-    if (senderWallet.getBalance().compareTo(amount) < 0) {
-      throw new RuntimeException("Insufficient funds");
+    // Строки кошельков блокируются в порядке id, встречные переводы не дают дедлок
+    if (senderWalletId < receiverWalletId) {
+      balanceService.debit(senderWalletId, amount);
+      balanceService.credit(receiverWalletId, amount);
+    } else {
+      balanceService.credit(receiverWalletId, amount);
+      balanceService.debit(senderWalletId, amount);
     }
 
-    senderWallet.setBalance(senderWallet.getBalance().subtract(amount));
     Category senderCategory = getOrCreateTransferCategory(sender, TransactionType.EXPENSE);
 
+    LocalDateTime now = LocalDateTime.now();
     transactionRepository.save(
         Transaction.builder()
-            .wallet(senderWallet)
+            .wallet(walletRepository.getReferenceById(senderWalletId))
             .category(senderCategory)
             .amount(amount)
-            .description("Transfer to " + receiver.getUsername())
-            .date(LocalDateTime.now())
+            .delta(amount.negate())
+            .description("Transfer to " + receiver.username())
+            .date(now)
             .build());
+    categoryTotalRepository.add(senderWalletId, senderCategory.getId(), amount);
+    rollupService.add(senderWalletId, senderCategory.getId(), now, amount);
 
-    receiverWallet.setBalance(receiverWallet.getBalance().add(amount));
     Category receiverCategory = getOrCreateTransferCategory(receiver, TransactionType.INCOME);
 
     transactionRepository.save(
         Transaction.builder()
-            .wallet(receiverWallet)
+            .wallet(walletRepository.getReferenceById(receiverWalletId))
             .category(receiverCategory)
             .amount(amount)
-            .description("Transfer from " + sender.getUsername())
-            .date(LocalDateTime.now())
+            .delta(amount)
+            .description("Transfer from " + sender.username())
+            .date(now)
             .build());
+    categoryTotalRepository.add(receiverWalletId, receiverCategory.getId(), amount);
+    rollupService.add(receiverWalletId, receiverCategory.getId(), now, amount);
+
+    dataVersions.bump(sender.userId());
+    dataVersions.bump(receiver.userId());
   }
 
-  private Category getOrCreateTransferCategory(User user, TransactionType type) {
-    return categoryRepository
-        .findByNameAndUserAndType(TRANSFER_CATEGORY_NAME, user, type)
+  private static String budgetWarning(Category category) {
+    return "WARNING: Budget exceeded for category " + category.getName();
+  }
+
+  private static BigDecimal delta(Category category, BigDecimal amount) {
+    return category.getType() == TransactionType.EXPENSE ? amount.negate() : amount;
+  }
+
+  private Category getOrCreateTransferCategory(AccountRef account, TransactionType type) {
+    return categoryCache
+        .find(account.userId(), TRANSFER_CATEGORY_NAME, type)
         .orElseGet(
-            () ->
-                categoryRepository.save(
-                    Category.builder().name(TRANSFER_CATEGORY_NAME).user(user).type(type).build()));
+            () -> {
+              // Сразу в БД: нативные приращения сумм объявляют только свои таблицы
+              // (HINT_NATIVE_SPACES) и не сбрасывают перед собой INSERT категории
+              Category created =
+                  categoryRepository.saveAndFlush(
+                      Category.builder()
+                          .name(TRANSFER_CATEGORY_NAME)
+                          .user(userRepository.getReferenceById(account.userId()))
+                          .type(type)
+                          .build());
+              categoryCache.invalidate(account.userId());
+              return created;
+            });
+  }
+
+  private Category findCategory(Long userId, String name) {
+    return categoryCache
+        .findByName(userId, name)
+        .orElseThrow(() -> new RuntimeException("Category not found: " + name));
+  }
+
+  @Transactional(readOnly = true)
+  public BalanceResponse getBalance(String username) {
+    return new BalanceResponse(balanceService.getBalance(getAccount(username).walletId()));
+  }
+
+  // Баланс по операциям с датой до at
+  @Transactional(readOnly = true)
+  public BalanceResponse getBalance(String username, LocalDateTime at) {
+    return getBalance(getAccount(username), at);
   }
 
-  // Статистика (Фильтрация)
+  @Transactional(readOnly = true)
+  public BalanceResponse getBalance(AccountRef account, LocalDateTime at) {
+    Long walletId = account.walletId();
+    return new BalanceResponse(
+        at == null
+            ? balanceService.getBalance(walletId)
+            : balanceService.getBalanceAt(walletId, at));
+  }
+
+  // Статистика за [from, to) (агрегация по категориям выполняется в БД)
+  @Transactional(readOnly = true)
   public StatsResponse getStats(String username, LocalDateTime from, LocalDateTime to) {
-    User user = getUser(username);
-    // Фильтруем транзакции по дате (если даты переданы)
-    List<Transaction> transactions =
-        transactionRepository.findByWallet(user.getWallet()).stream()
-            .filter(
-                t ->
-                    (from == null || !t.getDate().isBefore(from))
-                        && (to == null || !t.getDate().isAfter(to)))
-            .toList();
+    AccountRef account = getAccount(username);
+    return stats(account, from, to, dataVersions.current(account.userId()));
+  }
+
+  // Условный GET: при совпадении версии агрегация не выполняется, иначе ответ
+  // запоминается по (пользователь, версия, период)
+  @Transactional(readOnly = true)
+  public Versioned<StatsResponse> getStats(
+      String username, LocalDateTime from, LocalDateTime to, LongPredicate unchanged) {
+    return getStats(getAccount(username), from, to, unchanged);
+  }
 
+  @Transactional(readOnly = true)
+  public Versioned<StatsResponse> getStats(
+      AccountRef account, LocalDateTime from, LocalDateTime to, LongPredicate unchanged) {
+    long version = dataVersions.current(account.userId());
+    if (unchanged.test(version)) {
+      return new Versioned<>(version, null);
+    }
+    String view = "stats:" + from + ":" + to;
+    return new Versioned<>(
+        version,
+        dataVersions.memoize(
+            account.userId(), version, view, () -> stats(account, from, to, version)));
+  }
+
+  // Категории из кэша не старше версии, под которой запоминается ответ
+  private List<CategoryResponse> categories(Long userId, long version) {
+    return categoryCache.getAll(userId, version).stream().map(CategoryResponse::from).toList();
+  }
+
+  private StatsResponse stats(
+      AccountRef account, LocalDateTime from, LocalDateTime to, long version) {
+    Long walletId = account.walletId();
+    // Без периода достаточно накопительных счётчиков, история не читается;
+    // за период — дневные и месячные суммы плюс неполные дни на краях
+    List<CategoryAmount> totals =
+        from == null && to == null
+            ? categoryTotalRepository.sumByCategory(walletId)
+            : rollupService.sumByCategory(
+                walletId, from != null ? from : MIN_DATE, to != null ? to : MAX_DATE);
+
+    return aggregateStats(totals, categoryCache.getAll(account.userId(), version));
+  }
+
+  // Свёртка сумм по категориям в отчёт (без обращений к БД, замеряется в src/jmh)
+  static StatsResponse aggregateStats(List<CategoryAmount> totals, List<Category> categories) {
     BigDecimal totalIncome = BigDecimal.ZERO;
     BigDecimal totalExpense = BigDecimal.ZERO;
     Map<String, BigDecimal> expensesByCategory = new HashMap<>();
 
-    for (Transaction t : transactions) {
-      if (t.getCategory().getType() == TransactionType.INCOME) {
-        totalIncome = totalIncome.add(t.getAmount());
+    for (CategoryAmount row : totals) {
+      if (row.type() == TransactionType.INCOME) {
+        totalIncome = totalIncome.add(row.total());
       } else {
-        totalExpense = totalExpense.add(t.getAmount());
-        expensesByCategory.merge(t.getCategory().getName(), t.getAmount(), BigDecimal::add);
+        totalExpense = totalExpense.add(row.total());
+        expensesByCategory.merge(row.name(), row.total(), BigDecimal::add);
       }
     }
 
     Map<String, BigDecimal> budgetStatus = new HashMap<>();
-    List<Category> categories = categoryRepository.findByUser(user);
     for (Category c : categories) {
       if (c.getType() == TransactionType.EXPENSE && c.getBudgetLimit() != null) {
         // Бюджет считаем по тратам за выбранный период (или за всё время)
@@ -214,49 +496,83 @@ public class FinanceService {
   }
 
   // Экспорт данных
+  @Transactional(readOnly = true)
   public List<TransactionDto> exportTransactions(String username) {
-    User user = getUser(username);
-    return transactionRepository.findByWallet(user.getWallet()).stream()
-        .map(
-            t -> {
-              TransactionDto dto = new TransactionDto();
-              dto.setId(t.getId());
-              dto.setCategoryName(t.getCategory().getName());
-              dto.setAmount(t.getAmount());
-              dto.setDescription(t.getDescription());
-              dto.setDate(t.getDate());
-              return dto;
-            })
-        .collect(Collectors.toList());
-  }
-
-  private TransactionResponse buildResponse(Wallet wallet, Category category, TransactionDto dto) {
-    String message = "Success";
-    BigDecimal remaining = null;
+    return exportTransactions(getAccount(username));
+  }
 
-    if (category.getType() == TransactionType.EXPENSE && category.getBudgetLimit() != null) {
-      BigDecimal totalSpentInCategory =
-          transactionRepository.findByWallet(wallet).stream()
-              .filter(t -> t.getCategory().getId().equals(category.getId()))
-              .map(Transaction::getAmount)
-              .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      remaining = category.getBudgetLimit().subtract(totalSpentInCategory);
-      if (remaining.compareTo(BigDecimal.ZERO) < 0) {
-        message = "WARNING: Budget exceeded for category " + category.getName();
+  @Transactional(readOnly = true)
+  public List<TransactionDto> exportTransactions(AccountRef account) {
+    return transactionRepository.findDtosByWallet(account.walletId());
+  }
+
+  // История операций: keyset-пагинация по (date, id), от новых к старым
+  @Transactional(readOnly = true)
+  public TransactionPage getTransactions(
+      String username,
+      String cursor,
+      int size,
+      String categoryName,
+      LocalDateTime from,
+      LocalDateTime to) {
+    return getTransactions(getAccount(username), cursor, size, categoryName, from, to);
+  }
+
+  @Transactional(readOnly = true)
+  public TransactionPage getTransactions(
+      AccountRef account,
+      String cursor,
+      int size,
+      String categoryName,
+      LocalDateTime from,
+      LocalDateTime to) {
+    int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+    List<Long> categoryIds = null;
+    if (categoryName != null) {
+      categoryIds =
+          categoryRepository.findByUserIdAndNameOrderById(account.userId(), categoryName).stream()
+              .map(Category::getId)
+              .toList();
+      if (categoryIds.isEmpty()) {
+        throw new RuntimeException("Category not found: " + categoryName);
       }
     }
 
-    TransactionResponse response = new TransactionResponse();
-    response.setMessage(message);
-    response.setRemainingBudget(remaining);
-    response.setTransaction(dto);
-    return response;
+    PageCursor after = cursor != null ? PageCursor.decode(cursor) : null;
+    // Берём на одну строку больше, чтобы понять, есть ли следующая страница
+    List<TransactionDto> rows =
+        transactionRepository.findPage(
+            account.walletId(),
+            categoryIds,
+            from != null ? from : MIN_DATE,
+            to != null ? to : MAX_DATE,
+            after != null ? after.date() : null,
+            after != null ? after.id() : null,
+            limit + 1);
+
+    boolean hasMore = rows.size() > limit;
+    List<TransactionDto> pageRows = hasMore ? rows.subList(0, limit) : rows;
+
+    TransactionPage page = new TransactionPage();
+    page.setItems(List.copyOf(pageRows));
+    if (hasMore) {
+      TransactionDto last = pageRows.get(pageRows.size() - 1);
+      page.setNextCursor(new PageCursor(last.getDate(), last.getId()).encode());
+    }
+    return page;
   }
 
-  private User getUser(String username) {
+  // Перегрузки по имени: только id пользователя и кошелька, без загрузки сущностей
+  private AccountRef getAccount(String username) {
     return userRepository
-        .findByUsername(username)
+        .findAccountByUsername(username)
         .orElseThrow(() -> new RuntimeException("User not found"));
   }
+
+  private AccountRef getReceiver(String username) {
+    return userRepository
+        .findAccountByUsername(username)
+        .orElseThrow(() -> new RuntimeException("Receiver not found"));
+  }
 }
@@ -0,0 +1,184 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.exception.IdempotencyException;
+import com.example.financetracker.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Заголовок Idempotency-Key: повтор запроса с тем же ключом получает сохранённый ответ,
+// а действие не выполняется второй раз. Недавние ответы — в памяти процесса, источник
+// истины — таблица idempotency_keys. Ключ, действие и ответ — одна транзакция: строка ключа
+// видна другим только вместе с записью действия, а ошибка или падение экземпляра откатывают
+// и то, и другое. Сохранённые ответы живут ttl, просроченные строки удаляются
+// раз в purge-interval
+@Slf4j
+@Service
+public class IdempotencyService implements MeterBinder {
+
+  private static final int MAX_KEY_LENGTH = 255;
+
+  private final IdempotencyRecordRepository repository;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactions;
+  private final Duration ttl;
+  private final Cache<CacheKey, Stored> recent;
+  private final ScheduledExecutorService purger;
+
+  public IdempotencyService(
+      IdempotencyRecordRepository repository,
+      ObjectMapper objectMapper,
+      PlatformTransactionManager transactionManager,
+      @Value("${finance.idempotency.ttl:24h}") Duration ttl,
+      @Value("${finance.idempotency.cache-size:100000}") long cacheSize,
+      @Value("${finance.idempotency.purge-interval:10m}") Duration purgeInterval) {
+    this.repository = repository;
+    this.objectMapper = objectMapper;
+    this.transactions = new TransactionTemplate(transactionManager);
+    this.ttl = ttl;
+    this.recent =
+        Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(ttl).recordStats().build();
+    this.purger =
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("idempotency-purge").daemon().factory());
+    long interval = purgeInterval.toMillis();
+    purger.scheduleWithFixedDelay(this::purgeExpired, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  // key == null — обычный запрос без дедупликации. Иначе action выполняется в транзакции
+  // ключа (REQUIRED) и не должна повторять себя после ошибки БД: транзакция уже откачена.
+  // Повторы сбоев сериализации оборачивают весь вызов (TransferEngine)
+  public <T> T execute(
+      String username,
+      String key,
+      String operation,
+      Object request,
+      Class<T> responseType,
+      Supplier<T> action) {
+    if (key == null) {
+      return action.get();
+    }
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      throw new RuntimeException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+    }
+
+    String hash = fingerprint(operation, request);
+    CacheKey cacheKey = new CacheKey(username, key);
+    Stored stored = recent.getIfPresent(cacheKey);
+    if (stored == null) {
+      Claimed<T> claimed = transactions.execute(status -> claimAndRun(cacheKey, hash, action));
+      if (claimed.executed()) {
+        recent.put(cacheKey, claimed.stored());
+        return claimed.response();
+      }
+      stored = claimed.stored();
+    }
+
+    if (!stored.requestHash().equals(hash)) {
+      throw new IdempotencyException(
+          HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was used with a different request");
+    }
+    // Строка без ответа — ключ занят прежней версией приложения, которая сохраняла ответ
+    // отдельной транзакцией; такая строка держится до своего expires_at
+    if (stored.response() == null) {
+      throw new IdempotencyException(
+          HttpStatus.CONFLICT, "Request with this Idempotency-Key is in progress");
+    }
+    recent.put(cacheKey, stored);
+    return read(stored.response(), responseType);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, recent, "idempotency");
+  }
+
+  @PreDestroy
+  void shutdown() {
+    purger.shutdownNow();
+  }
+
+  void purgeExpired() {
+    try {
+      int deleted = repository.deleteExpired(LocalDateTime.now());
+      log.debug("Purged {} expired idempotency keys", deleted);
+    } catch (RuntimeException e) {
+      log.warn("Failed to purge idempotency keys: {}", e.getMessage());
+    }
+  }
+
+  // Параллельный дубль ждёт на INSERT ключа коммита или отката первого запроса: после
+  // коммита он получает сохранённый ответ, после отката выполняет действие сам
+  private <T> Claimed<T> claimAndRun(CacheKey cacheKey, String hash, Supplier<T> action) {
+    String username = cacheKey.username();
+    String key = cacheKey.key();
+    LocalDateTime now = LocalDateTime.now();
+    if (repository.claim(username, key, hash, now, now.plus(ttl)) == 1) {
+      // Ошибка действия откатывает и ключ: клиент может исправить причину и повторить
+      T response = action.get();
+      String json = write(response);
+      repository.complete(username, key, json, LocalDateTime.now().plus(ttl));
+      return new Claimed<>(true, response, new Stored(hash, json));
+    }
+    Stored stored =
+        repository
+            .findRecord(username, key)
+            .map(r -> new Stored(r.getRequestHash(), r.getResponse()))
+            .orElse(new Stored(hash, null));
+    return new Claimed<>(false, null, stored);
+  }
+
+  private String fingerprint(String operation, Object request) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(operation.getBytes(StandardCharsets.UTF_8));
+      digest.update(objectMapper.writeValueAsBytes(request));
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+      throw new IllegalStateException("Cannot fingerprint request", e);
+    }
+  }
+
+  private String write(Object response) {
+    try {
+      return objectMapper.writeValueAsString(response);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot store response", e);
+    }
+  }
+
+  private <T> T read(String json, Class<T> type) {
+    try {
+      return objectMapper.readValue(json, type);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot read stored response", e);
+    }
+  }
+
+  private record CacheKey(String username, String key) {}
+
+  private record Stored(String requestHash, String response) {}
+
+  private record Claimed<T>(boolean executed, T response, Stored stored) {}
+}
@@ -0,0 +1,141 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.entity.Wallet;
+import com.example.financetracker.entity.WalletBalanceSnapshot;
+import com.example.financetracker.repository.TransactionRepository;
+import com.example.financetracker.repository.WalletBalanceSnapshotRepository;
+import com.example.financetracker.repository.WalletRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Журнальный режим баланса: операции только добавляются, баланс на момент at — это
+// последний снимок не позже at плюс delta операций с датой в [asOf снимка, at) плюс
+// операции, записанные после снимка задним числом (ledger_seq больше, дата раньше asOf).
+// Начальный снимок на LEDGER_START есть у каждого журнального кошелька
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+
+  static final LocalDateTime LEDGER_START = FinanceService.MIN_DATE;
+
+  private final WalletRepository walletRepository;
+  private final TransactionRepository transactionRepository;
+  private final WalletBalanceSnapshotRepository snapshotRepository;
+
+  // Зачисление — только INSERT операции; блокировка нужна, чтобы снимок её дождался
+  @Transactional
+  public void credit(Long walletId) {
+    walletRepository
+        .lockForCredit(walletId)
+        .orElseThrow(() -> new RuntimeException("Wallet not found"));
+  }
+
+  @Transactional
+  public void debit(Long walletId, BigDecimal amount) {
+    walletRepository
+        .lockForDebit(walletId)
+        .orElseThrow(() -> new RuntimeException("Wallet not found"));
+    if (balanceFrom(latest(walletId), null).compareTo(amount) < 0) {
+      throw new RuntimeException("Insufficient funds");
+    }
+  }
+
+  public BigDecimal getBalance(Long walletId) {
+    return balanceFrom(latest(walletId), null);
+  }
+
+  public BigDecimal getBalanceAt(Long walletId, LocalDateTime at) {
+    WalletBalanceSnapshot snapshot =
+        snapshotRepository
+            .findFirstByWalletIdAndAsOfLessThanEqualOrderByAsOfDesc(walletId, at)
+            .orElseThrow(() -> new RuntimeException("Balance history starts at " + LEDGER_START));
+    return balanceFrom(snapshot, at);
+  }
+
+  public List<Long> getLedgerWalletIds() {
+    return walletRepository.findLedgerWalletIds();
+  }
+
+  // Новый кошелёк сразу в журнальном режиме: операций у него ещё нет
+  @Transactional
+  public void open(Long walletId) {
+    long ledgerSeq = transactionRepository.currentLedgerSeq();
+    snapshotRepository.save(snapshot(walletId, LEDGER_START, ledgerSeq, BigDecimal.ZERO));
+  }
+
+  // Перевод существующего кошелька: остаток, не объяснённый операциями (например, из
+  // отключённых секций), становится начальным снимком, wallets.balance обнуляется
+  @Transactional
+  public void enable(Long walletId) {
+    Wallet wallet =
+        walletRepository
+            .lockById(walletId)
+            .orElseThrow(() -> new RuntimeException("Wallet not found"));
+    if (wallet.isLedger()) {
+      throw new RuntimeException("Wallet is already in ledger mode");
+    }
+    if (wallet.getBalanceShards() > 1) {
+      throw new RuntimeException("Sharded wallet cannot switch to ledger mode");
+    }
+
+    BigDecimal opening =
+        wallet.getBalance().subtract(transactionRepository.sumDeltaSince(walletId, LEDGER_START));
+    long ledgerSeq = transactionRepository.currentLedgerSeq();
+    snapshotRepository.save(snapshot(walletId, LEDGER_START, ledgerSeq, opening));
+    wallet.setBalance(BigDecimal.ZERO);
+    wallet.setLedger(true);
+  }
+
+  // Новый снимок из предыдущего, если после него были записи; false — снимок не нужен.
+  // Блокировка UPDATE дожидается незавершённых записей кошелька, поэтому все операции
+  // с ledger_seq не больше текущего уже видны, а новые получат номер больше
+  @Transactional
+  public boolean snapshot(Long walletId) {
+    walletRepository
+        .lockForSnapshot(walletId)
+        .orElseThrow(() -> new RuntimeException("Wallet not found"));
+    WalletBalanceSnapshot last = latest(walletId);
+    LocalDateTime asOf = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    if (!asOf.isAfter(last.getAsOf())
+        || !transactionRepository.existsAfterSeq(walletId, last.getLedgerSeq())) {
+      return false;
+    }
+    long ledgerSeq = transactionRepository.currentLedgerSeq();
+    snapshotRepository.save(snapshot(walletId, asOf, ledgerSeq, balanceFrom(last, asOf)));
+    return true;
+  }
+
+  private WalletBalanceSnapshot latest(Long walletId) {
+    return snapshotRepository
+        .findFirstByWalletIdOrderByAsOfDesc(walletId)
+        .orElseThrow(() -> new RuntimeException("Wallet is not in ledger mode"));
+  }
+
+  // at == null — текущий баланс, включая операции с датой в будущем
+  private BigDecimal balanceFrom(WalletBalanceSnapshot snapshot, LocalDateTime at) {
+    Long walletId = snapshot.getWalletId();
+    BigDecimal dated =
+        at == null
+            ? transactionRepository.sumDeltaSince(walletId, snapshot.getAsOf())
+            : transactionRepository.sumDeltaBetween(walletId, snapshot.getAsOf(), at);
+    BigDecimal backdated =
+        transactionRepository.sumDeltaAfterSeq(
+            walletId, snapshot.getLedgerSeq(), snapshot.getAsOf());
+    return snapshot.getBalance().add(dated).add(backdated);
+  }
+
+  private static WalletBalanceSnapshot snapshot(
+      Long walletId, LocalDateTime asOf, long ledgerSeq, BigDecimal balance) {
+    return WalletBalanceSnapshot.builder()
+        .walletId(walletId)
+        .asOf(asOf)
+        .ledgerSeq(ledgerSeq)
+        .balance(balance)
+        .build();
+  }
+}
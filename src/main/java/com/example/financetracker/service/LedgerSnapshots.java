@@ -0,0 +1,67 @@
+package com.example.financetracker.service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+// Периодические снимки журнальных кошельков: баланс читает хвост журнала только
+// после последнего снимка. Каждый кошелёк снимается в своей транзакции
+@Slf4j
+@Service
+public class LedgerSnapshots {
+
+  private final LedgerService ledgerService;
+  private final Duration interval;
+  private final ScheduledExecutorService scheduler;
+
+  public LedgerSnapshots(
+      LedgerService ledgerService,
+      @Value("${finance.ledger.snapshot-interval:1h}") Duration interval) {
+    this.ledgerService = ledgerService;
+    this.interval = interval;
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("ledger-snapshots").daemon().factory());
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void start() {
+    long period = interval.toMillis();
+    scheduler.scheduleWithFixedDelay(this::runSafely, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  public int snapshotAll() {
+    int taken = 0;
+    for (Long walletId : ledgerService.getLedgerWalletIds()) {
+      try {
+        if (ledgerService.snapshot(walletId)) {
+          taken++;
+        }
+      } catch (RuntimeException e) {
+        log.warn("Ledger snapshot of wallet {} failed: {}", walletId, e.getMessage());
+      }
+    }
+    log.info("ledger snapshots taken: {}", taken);
+    return taken;
+  }
+
+  private void runSafely() {
+    try {
+      snapshotAll();
+    } catch (RuntimeException e) {
+      log.warn("Ledger snapshots failed: {}", e.getMessage());
+    }
+  }
+}
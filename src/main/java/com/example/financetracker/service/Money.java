@@ -0,0 +1,43 @@
+package com.example.financetracker.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Денежная сумма в копейках: NUMERIC(19,2) целиком помещается в long.
+// Методы работают с голым long для циклов агрегации без аллокаций;
+// BigDecimal появляется только на границе с DTO и репозиториями.
+public final class Money {
+
+  public static final int SCALE = 2;
+
+  private Money() {}
+
+  // Округление как у NUMERIC(19,2) в Postgres: половина — от нуля
+  public static long minorUnits(BigDecimal amount) {
+    try {
+      return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    } catch (ArithmeticException e) {
+      throw new RuntimeException("Amount out of range: " + amount);
+    }
+  }
+
+  public static BigDecimal toBigDecimal(long minorUnits) {
+    return BigDecimal.valueOf(minorUnits, SCALE);
+  }
+
+  public static long add(long a, long b) {
+    try {
+      return Math.addExact(a, b);
+    } catch (ArithmeticException e) {
+      throw new RuntimeException("Amount out of range");
+    }
+  }
+
+  public static long subtract(long a, long b) {
+    try {
+      return Math.subtractExact(a, b);
+    } catch (ArithmeticException e) {
+      throw new RuntimeException("Amount out of range");
+    }
+  }
+}
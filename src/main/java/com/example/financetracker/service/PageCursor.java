@@ -0,0 +1,27 @@
+package com.example.financetracker.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Непрозрачный курсор keyset-пагинации: позиция последней отданной строки (date, id)
+record PageCursor(LocalDateTime date, Long id) {
+
+  String encode() {
+    String raw = date + "|" + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static PageCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int sep = raw.indexOf('|');
+      return new PageCursor(
+          LocalDateTime.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+    } catch (RuntimeException e) {
+      throw new RuntimeException("Invalid cursor");
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+// Месячные секции таблицы transactions: заранее создаёт секции на months-ahead месяцев
+// вперёд (иначе новые строки падают в transactions_default) и, если задано
+// detach-after-months, отключает секции старше этого срока. Отключённая секция остаётся
+// отдельной таблицей transactions_YYYY_MM: её можно выгрузить в архив и удалить вручную.
+// Её суммы по дням переносятся в archived_category_totals, и проверка с пересборкой
+// category_totals и сумм по дням и месяцам их учитывают. Версия данных владельцев
+// затронутых кошельков растёт в той же функции (V14)
+@Slf4j
+@Service
+public class PartitionMaintenance {
+
+  private final TransactionRepository transactionRepository;
+  private final int monthsAhead;
+  private final int detachAfterMonths;
+  private final Duration interval;
+  private final ScheduledExecutorService scheduler;
+
+  public PartitionMaintenance(
+      TransactionRepository transactionRepository,
+      @Value("${finance.partitions.months-ahead:3}") int monthsAhead,
+      @Value("${finance.partitions.detach-after-months:0}") int detachAfterMonths,
+      @Value("${finance.partitions.interval:24h}") Duration interval) {
+    if (monthsAhead < 1) {
+      throw new IllegalArgumentException("finance.partitions.months-ahead must be positive");
+    }
+    this.transactionRepository = transactionRepository;
+    this.monthsAhead = monthsAhead;
+    this.detachAfterMonths = detachAfterMonths;
+    this.interval = interval;
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("partition-maintenance").daemon().factory());
+  }
+
+  // Первый проход сразу после старта, затем раз в interval
+  @EventListener(ApplicationReadyEvent.class)
+  void start() {
+    long period = interval.toMillis();
+    scheduler.scheduleWithFixedDelay(this::runSafely, 0, period, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  public int createUpcoming() {
+    LocalDate month = LocalDate.now().withDayOfMonth(1);
+    int created = transactionRepository.createPartitions(month, month.plusMonths(monthsAhead));
+    log.info("transactions partitions created: {}", created);
+    return created;
+  }
+
+  // 0 — отключение выключено
+  public int detachCold() {
+    if (detachAfterMonths <= 0) {
+      return 0;
+    }
+    LocalDate before = LocalDate.now().withDayOfMonth(1).minusMonths(detachAfterMonths);
+    int detached = transactionRepository.detachPartitionsBefore(before);
+    log.info("transactions partitions before {} detached: {}", before, detached);
+    return detached;
+  }
+
+  private void runSafely() {
+    try {
+      createUpcoming();
+      detachCold();
+    } catch (RuntimeException e) {
+      log.warn("Partition maintenance failed: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.dto.CategoryAmount;
+import com.example.financetracker.repository.DailyCategoryTotalRepository;
+import com.example.financetracker.repository.MonthlyCategoryTotalRepository;
+import com.example.financetracker.repository.TransactionRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Дневные и месячные суммы по категориям: ведутся при каждой записи операции
+// и отвечают на статистику за период без чтения всей истории
+@Service
+@RequiredArgsConstructor
+public class RollupService {
+
+  private final DailyCategoryTotalRepository dailyRepository;
+  private final MonthlyCategoryTotalRepository monthlyRepository;
+  private final TransactionRepository transactionRepository;
+  private final DataVersionService dataVersions;
+
+  public void add(Long walletId, Long categoryId, LocalDateTime date, BigDecimal amount) {
+    dailyRepository.add(walletId, categoryId, date, amount);
+  }
+
+  // Суммы по категориям за [from, to); строки могут повторяться по имени категории
+  @Transactional(readOnly = true)
+  public List<CategoryAmount> sumByCategory(Long walletId, LocalDateTime from, LocalDateTime to) {
+    StatsRange range = StatsRange.of(from, to);
+    List<CategoryAmount> rows = new ArrayList<>();
+    for (StatsRange.Span<LocalDate> span : range.months()) {
+      rows.addAll(monthlyRepository.sumByCategory(walletId, span.from(), span.to()));
+    }
+    for (StatsRange.Span<LocalDate> span : range.days()) {
+      rows.addAll(dailyRepository.sumByCategory(walletId, span.from(), span.to()));
+    }
+    for (StatsRange.Span<LocalDateTime> span : range.raw()) {
+      rows.addAll(transactionRepository.sumByCategory(walletId, span.from(), span.to()));
+    }
+    return rows;
+  }
+
+  // Пересборка из transactions (бэкфилл для существующих данных)
+  @Transactional
+  public int rebuild() {
+    dailyRepository.lockForRebuild();
+    monthlyRepository.deleteAllInBatch();
+    dailyRepository.deleteAllInBatch();
+    int rows = dailyRepository.insertFromTransactions();
+    monthlyRepository.insertFromDaily();
+    // Отчёты за период читают эти суммы: ETag всех пользователей устаревает
+    dataVersions.bumpAll();
+    return rows;
+  }
+}
@@ -0,0 +1,54 @@
+package com.example.financetracker.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Разбиение периода [from, to) на целые месяцы, целые дни и неполные дни на краях.
+// Число частей не зависит от длины периода: не больше одного отрезка месяцев,
+// двух отрезков дней и двух отрезков сырых операций
+record StatsRange(
+    List<Span<LocalDateTime>> raw, List<Span<LocalDate>> days, List<Span<LocalDate>> months) {
+
+  record Span<T>(T from, T to) {}
+
+  static StatsRange of(LocalDateTime from, LocalDateTime to) {
+    List<Span<LocalDateTime>> raw = new ArrayList<>();
+    List<Span<LocalDate>> days = new ArrayList<>();
+    List<Span<LocalDate>> months = new ArrayList<>();
+
+    LocalDate firstDay =
+        from.toLocalTime().equals(LocalTime.MIDNIGHT)
+            ? from.toLocalDate()
+            : from.toLocalDate().plusDays(1);
+    LocalDate endDay = to.toLocalDate();
+    if (!firstDay.isBefore(endDay)) {
+      raw.add(new Span<>(from, to));
+      return new StatsRange(raw, days, months);
+    }
+
+    LocalDate firstMonth =
+        firstDay.getDayOfMonth() == 1 ? firstDay : firstDay.withDayOfMonth(1).plusMonths(1);
+    LocalDate endMonth = endDay.withDayOfMonth(1);
+    if (firstMonth.isBefore(endMonth)) {
+      addIfNotEmpty(days, firstDay, firstMonth);
+      months.add(new Span<>(firstMonth, endMonth));
+      addIfNotEmpty(days, endMonth, endDay);
+    } else {
+      days.add(new Span<>(firstDay, endDay));
+    }
+
+    addIfNotEmpty(raw, from, firstDay.atStartOfDay());
+    addIfNotEmpty(raw, endDay.atStartOfDay(), to);
+    return new StatsRange(raw, days, months);
+  }
+
+  private static <T extends Comparable<? super T>> void addIfNotEmpty(
+      List<Span<T>> spans, T from, T to) {
+    if (from.compareTo(to) < 0) {
+      spans.add(new Span<>(from, to));
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.dto.AccountRef;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+// Короткоживущий токен сессии:
+// base64url(expiresAt|userId|walletId|username).base64url(HMAC-SHA256)
+// Проверка — один HMAC вместо BCrypt на каждый запрос, id пользователя и кошелька — из токена
+@Service
+public class TokenService {
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final SecretKeySpec key;
+  private final Duration ttl;
+
+  public TokenService(
+      @Value("${finance.auth.token-secret}") String secret,
+      @Value("${finance.auth.token-ttl:15m}") Duration ttl) {
+    if (secret == null || secret.isBlank()) {
+      throw new IllegalStateException(
+          "finance.auth.token-secret is not set (FINANCE_TOKEN_SECRET)");
+    }
+    byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+    if (secretBytes.length < 32) {
+      throw new IllegalStateException("finance.auth.token-secret must be at least 32 bytes");
+    }
+    this.key = new SecretKeySpec(secretBytes, ALGORITHM);
+    this.ttl = ttl;
+  }
+
+  public Duration getTtl() {
+    return ttl;
+  }
+
+  public String issue(AccountRef account) {
+    long expiresAt = Instant.now().plus(ttl).getEpochSecond();
+    String raw =
+        expiresAt + "|" + account.userId() + "|" + account.walletId() + "|" + account.username();
+    String payload = ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    return payload + "." + ENCODER.encodeToString(sign(payload));
+  }
+
+  // Пользователь из токена или null, если подпись неверна или срок истёк
+  public AccountRef verify(String token) {
+    int dot = token.indexOf('.');
+    if (dot <= 0) {
+      return null;
+    }
+    String payload = token.substring(0, dot);
+    try {
+      byte[] signature = DECODER.decode(token.substring(dot + 1));
+      if (!MessageDigest.isEqual(sign(payload), signature)) {
+        return null;
+      }
+      String raw = new String(DECODER.decode(payload), StandardCharsets.UTF_8);
+      // Имя последнее: в нём самом может встретиться разделитель
+      String[] parts = raw.split("\\|", 4);
+      long expiresAt = Long.parseLong(parts[0]);
+      if (Instant.now().getEpochSecond() >= expiresAt) {
+        return null;
+      }
+      return new AccountRef(Long.valueOf(parts[1]), Long.valueOf(parts[2]), parts[3]);
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      return null;
+    }
+  }
+
+  private byte[] sign(String payload) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.example.financetracker.service;
+
+import com.example.financetracker.dto.AccountRef;
+import com.example.financetracker.dto.TransferRequest;
+import com.example.financetracker.repository.UserRepository;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+
+// Переводы через полосатую таблицу блокировок: переводы одного кошелька ждут друг друга
+// в памяти процесса, а не на блокировках строк в БД. Полосы берутся в порядке индекса,
+// строки кошельков в FinanceService — в порядке id; сбои сериализации повторяются с паузой.
+@Slf4j
+@Service
+public class TransferEngine {
+
+  private final FinanceService financeService;
+  private final UserRepository userRepository;
+  private final FinanceMetrics metrics;
+  private final ReentrantLock[] stripes;
+  private final int maxAttempts;
+  private final long initialBackoffMillis;
+
+  public TransferEngine(
+      FinanceService financeService,
+      UserRepository userRepository,
+      FinanceMetrics metrics,
+      @Value("${finance.transfer.lock-stripes:1024}") int stripeCount,
+      @Value("${finance.transfer.max-attempts:5}") int maxAttempts,
+      @Value("${finance.transfer.initial-backoff:10ms}") Duration initialBackoff) {
+    this.financeService = financeService;
+    this.userRepository = userRepository;
+    this.metrics = metrics;
+    this.stripes = new ReentrantLock[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+    this.maxAttempts = maxAttempts;
+    this.initialBackoffMillis = Math.max(1, initialBackoff.toMillis());
+  }
+
+  public void transfer(String senderName, TransferRequest request) {
+    transfer(
+        userRepository
+            .findAccountByUsername(senderName)
+            .orElseThrow(() -> new RuntimeException("User not found")),
+        request);
+  }
+
+  public void transfer(AccountRef sender, TransferRequest request) {
+    transfer(
+        sender,
+        request,
+        attempt -> {
+          attempt.run();
+          return null;
+        });
+  }
+
+  // Отправитель — из принципала; получатель ищется один раз, а не на каждой попытке.
+  // wrapper оборачивает каждую попытку: IdempotencyService выполняет её в одной транзакции
+  // с ключом запроса, и сбой сериализации откатывает ключ вместе с переводом
+  public <T> T transfer(AccountRef sender, TransferRequest request, Function<Runnable, T> wrapper) {
+    AccountRef receiver =
+        userRepository
+            .findAccountByUsername(request.getReceiverUsername())
+            .orElseThrow(() -> new RuntimeException("Receiver not found"));
+
+    int a = stripeIndex(sender.walletId());
+    int b = stripeIndex(receiver.walletId());
+    ReentrantLock first = stripes[Math.min(a, b)];
+    ReentrantLock second = stripes[Math.max(a, b)];
+
+    // Полосы держатся только на время попытки: пока идёт пауза перед повтором,
+    // переводы других кошельков с теми же полосами не ждут
+    long backoff = initialBackoffMillis;
+    for (int attempt = 1; ; attempt++) {
+      try {
+        T result =
+            transferLocked(
+                first,
+                second,
+                wrapper,
+                () -> financeService.transfer(sender, receiver, request.getAmount()));
+        metrics.transferCompleted();
+        return result;
+      } catch (ConcurrencyFailureException e) {
+        if (attempt >= maxAttempts) {
+          throw e;
+        }
+        log.debug("Transfer attempt {} failed, retrying: {}", attempt, e.getMessage());
+        metrics.transferRetried();
+        sleep(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1));
+        backoff *= 2;
+      }
+    }
+  }
+
+  private <T> T transferLocked(
+      ReentrantLock first,
+      ReentrantLock second,
+      Function<Runnable, T> wrapper,
+      Runnable transfer) {
+    first.lock();
+    try {
+      if (second != first) {
+        second.lock();
+      }
+      try {
+        return wrapper.apply(transfer);
+      } finally {
+        if (second != first) {
+          second.unlock();
+        }
+      }
+    } finally {
+      first.unlock();
+    }
+  }
+
+  private int stripeIndex(Long walletId) {
+    return Math.floorMod(Long.hashCode(walletId * 0x9E3779B97F4A7C15L), stripes.length);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Transfer interrupted");
+    }
+  }
+}
@@ -0,0 +1,38 @@
+-- Журнальный режим баланса: каждая операция несёт знаковое изменение delta (доход +, расход -),
+-- баланс кошелька с ledger = true не хранится в wallets.balance, а считается как
+-- снимок + хвост журнала. ledger_seq выдаётся при INSERT (а не блоком, как id), поэтому
+-- записи после снимка всегда получают номер больше запомненного в нём
+ALTER TABLE transactions ADD COLUMN delta NUMERIC(19, 2);
+ALTER TABLE transactions ADD COLUMN ledger_seq BIGINT;
+
+CREATE SEQUENCE transactions_ledger_seq;
+
+UPDATE transactions t
+SET delta = CASE WHEN c.type = 'EXPENSE' THEN -t.amount ELSE t.amount END,
+    ledger_seq = nextval('transactions_ledger_seq')
+FROM categories c
+WHERE c.id = t.category_id;
+
+UPDATE transactions
+SET delta = amount, ledger_seq = nextval('transactions_ledger_seq')
+WHERE ledger_seq IS NULL;
+
+ALTER TABLE transactions ALTER COLUMN delta SET NOT NULL;
+ALTER TABLE transactions ALTER COLUMN ledger_seq SET DEFAULT nextval('transactions_ledger_seq');
+ALTER TABLE transactions ALTER COLUMN ledger_seq SET NOT NULL;
+ALTER SEQUENCE transactions_ledger_seq OWNED BY transactions.ledger_seq;
+
+-- Хвост журнала кошелька после снимка
+CREATE INDEX idx_transactions_wallet_ledger_seq ON transactions (wallet_id, ledger_seq);
+
+ALTER TABLE wallets ADD COLUMN ledger BOOLEAN NOT NULL DEFAULT false;
+
+-- Снимок: balance = сумма delta операций с ledger_seq <= снимка и date < as_of.
+-- У каждого журнального кошелька есть начальный снимок на 1900-01-01
+CREATE TABLE wallet_balance_snapshots (
+    wallet_id BIGINT NOT NULL REFERENCES wallets(id),
+    as_of TIMESTAMP NOT NULL,
+    ledger_seq BIGINT NOT NULL,
+    balance NUMERIC(19, 2) NOT NULL,
+    PRIMARY KEY (wallet_id, as_of)
+);
@@ -0,0 +1,3 @@
+-- Версия данных пользователя для ETag: растёт с каждым изменением операций и категорий
+-- (DataVersionService), в сущность User не отображается
+ALTER TABLE users ADD COLUMN data_version BIGINT NOT NULL DEFAULT 0;
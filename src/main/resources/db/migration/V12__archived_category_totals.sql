@@ -0,0 +1,65 @@
+-- Суммы по (кошелёк, категория, день) из отключённых секций transactions. Отключение
+-- переносит их сюда в той же транзакции, поэтому проверка и пересборка category_totals
+-- и сумм по дням и месяцам учитывают архивные месяцы и после удаления таблицы секции
+CREATE TABLE archived_category_totals (
+    wallet_id BIGINT NOT NULL REFERENCES wallets(id),
+    category_id BIGINT NOT NULL REFERENCES categories(id),
+    day DATE NOT NULL,
+    total NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (wallet_id, day, category_id)
+);
+
+CREATE FUNCTION archive_transaction_partition(part TEXT) RETURNS VOID
+LANGUAGE plpgsql AS $$
+BEGIN
+    EXECUTE format(
+        'INSERT INTO archived_category_totals (wallet_id, category_id, day, total)'
+            || ' SELECT wallet_id, category_id, CAST(date AS DATE), SUM(amount) FROM %I'
+            || ' WHERE wallet_id IS NOT NULL AND category_id IS NOT NULL'
+            || ' GROUP BY wallet_id, category_id, CAST(date AS DATE)'
+            || ' ON CONFLICT (wallet_id, day, category_id)'
+            || ' DO UPDATE SET total = archived_category_totals.total + EXCLUDED.total',
+        part);
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION detach_transaction_partitions(before_month DATE) RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    part TEXT;
+    detached INT := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'transactions'::regclass
+          AND c.relname ~ '^transactions_[0-9]{4}_[0-9]{2}$'
+          AND to_date(substr(c.relname, 14), 'YYYY_MM') < date_trunc('month', before_month)
+        ORDER BY c.relname
+    LOOP
+        PERFORM archive_transaction_partition(part);
+        EXECUTE format('ALTER TABLE transactions DETACH PARTITION %I', part);
+        detached := detached + 1;
+    END LOOP;
+    RETURN detached;
+END;
+$$;
+
+-- Секции, отключённые до этой миграции и ещё не удалённые
+DO $$
+DECLARE
+    part TEXT;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_class c
+        WHERE c.relkind = 'r'
+          AND c.relname ~ '^transactions_[0-9]{4}_[0-9]{2}$'
+          AND NOT EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid)
+        ORDER BY c.relname
+    LOOP
+        PERFORM archive_transaction_partition(part);
+    END LOOP;
+END;
+$$;
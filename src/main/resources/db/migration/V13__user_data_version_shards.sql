@@ -0,0 +1,15 @@
+-- Версия данных пользователя — сумма счётчиков в нескольких строках (DataVersionService):
+-- изменение увеличивает одну случайную строку, и параллельные записи одного пользователя
+-- не ждут друг друга на строке users. Счётчики только растут, поэтому сумма меняется
+-- с каждым коммитом. Счётчики удаляются вместе с пользователем
+CREATE TABLE user_data_versions (
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    shard INT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, shard)
+);
+
+INSERT INTO user_data_versions (user_id, shard, version)
+SELECT id, 0, data_version FROM users WHERE data_version > 0;
+
+ALTER TABLE users DROP COLUMN data_version;
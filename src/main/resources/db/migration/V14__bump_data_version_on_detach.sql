@@ -0,0 +1,32 @@
+-- Отключение секции меняет историю и неполные дни статистики: версия данных
+-- (user_data_versions, V13) растёт у владельцев кошельков с операциями в этой секции.
+-- Пользователи обновляются по возрастанию id, как и в DataVersionService
+CREATE OR REPLACE FUNCTION detach_transaction_partitions(before_month DATE) RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    part TEXT;
+    detached INT := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'transactions'::regclass
+          AND c.relname ~ '^transactions_[0-9]{4}_[0-9]{2}$'
+          AND to_date(substr(c.relname, 14), 'YYYY_MM') < date_trunc('month', before_month)
+        ORDER BY c.relname
+    LOOP
+        PERFORM archive_transaction_partition(part);
+        EXECUTE format(
+            'INSERT INTO user_data_versions (user_id, shard, version)'
+                || ' SELECT DISTINCT w.user_id, 0, 1 FROM %I t JOIN wallets w ON w.id = t.wallet_id'
+                || ' WHERE w.user_id IS NOT NULL ORDER BY w.user_id'
+                || ' ON CONFLICT (user_id, shard)'
+                || ' DO UPDATE SET version = user_data_versions.version + 1',
+            part);
+        EXECUTE format('ALTER TABLE transactions DETACH PARTITION %I', part);
+        detached := detached + 1;
+    END LOOP;
+    RETURN detached;
+END;
+$$;
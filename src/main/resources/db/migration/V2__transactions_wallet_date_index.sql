@@ -0,0 +1,2 @@
+-- Статистика фильтрует транзакции кошелька по диапазону дат
+CREATE INDEX idx_transactions_wallet_date ON transactions (wallet_id, date);
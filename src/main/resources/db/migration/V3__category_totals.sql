@@ -0,0 +1,13 @@
+-- Накопительные суммы по (кошелёк, категория) для проверки бюджета без чтения истории
+CREATE TABLE category_totals (
+    wallet_id BIGINT NOT NULL REFERENCES wallets(id),
+    category_id BIGINT NOT NULL REFERENCES categories(id),
+    total NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (wallet_id, category_id)
+);
+
+INSERT INTO category_totals (wallet_id, category_id, total)
+SELECT wallet_id, category_id, SUM(amount)
+FROM transactions
+WHERE wallet_id IS NOT NULL AND category_id IS NOT NULL
+GROUP BY wallet_id, category_id;
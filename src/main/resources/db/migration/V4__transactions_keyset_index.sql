@@ -0,0 +1,4 @@
+-- Keyset-пагинация истории по (date, id); индекс покрывает и диапазонные запросы статистики
+CREATE INDEX idx_transactions_wallet_date_id ON transactions (wallet_id, date, id);
+
+DROP INDEX idx_transactions_wallet_date;
@@ -0,0 +1,6 @@
+-- Идентификаторы выдаются Hibernate блоками по 50 (pooled), что позволяет батчить INSERT.
+-- Шаг последовательности должен совпадать с allocationSize в сущностях.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE wallets_id_seq INCREMENT BY 50;
+ALTER SEQUENCE categories_id_seq INCREMENT BY 50;
+ALTER SEQUENCE transactions_id_seq INCREMENT BY 50;
@@ -0,0 +1,10 @@
+-- Шардированный баланс для горячих кошельков: при balance_shards > 1 баланс хранится
+-- в N строках wallet_balance_shards, а wallets.balance не используется
+ALTER TABLE wallets ADD COLUMN balance_shards INT NOT NULL DEFAULT 1;
+
+CREATE TABLE wallet_balance_shards (
+    wallet_id BIGINT NOT NULL REFERENCES wallets(id),
+    shard INT NOT NULL,
+    balance NUMERIC(19, 2) NOT NULL DEFAULT 0 CHECK (balance >= 0),
+    PRIMARY KEY (wallet_id, shard)
+);
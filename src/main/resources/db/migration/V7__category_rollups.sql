@@ -0,0 +1,29 @@
+-- Суммы по (кошелёк, категория) за день и за месяц: статистика за период берёт целые
+-- интервалы отсюда, а из transactions читает только неполные дни на краях
+CREATE TABLE daily_category_totals (
+    wallet_id BIGINT NOT NULL REFERENCES wallets(id),
+    category_id BIGINT NOT NULL REFERENCES categories(id),
+    day DATE NOT NULL,
+    total NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (wallet_id, day, category_id)
+);
+
+-- month — первое число месяца
+CREATE TABLE monthly_category_totals (
+    wallet_id BIGINT NOT NULL REFERENCES wallets(id),
+    category_id BIGINT NOT NULL REFERENCES categories(id),
+    month DATE NOT NULL,
+    total NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (wallet_id, month, category_id)
+);
+
+INSERT INTO daily_category_totals (wallet_id, category_id, day, total)
+SELECT wallet_id, category_id, CAST(date AS DATE), SUM(amount)
+FROM transactions
+WHERE wallet_id IS NOT NULL AND category_id IS NOT NULL
+GROUP BY wallet_id, category_id, CAST(date AS DATE);
+
+INSERT INTO monthly_category_totals (wallet_id, category_id, month, total)
+SELECT wallet_id, category_id, CAST(date_trunc('month', day) AS DATE), SUM(total)
+FROM daily_category_totals
+GROUP BY wallet_id, category_id, CAST(date_trunc('month', day) AS DATE);
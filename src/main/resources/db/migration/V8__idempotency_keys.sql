@@ -0,0 +1,12 @@
+-- Ключи идемпотентности POST /transactions и /transfer: response IS NULL, пока запрос
+-- выполняется; после expires_at ключ можно использовать заново, строки периодически удаляются
+CREATE TABLE idempotency_keys (
+    username VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response TEXT,
+    expires_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (username, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,94 @@
+-- transactions секционируется по месяцам поля date: запросы с диапазоном дат читают только
+-- свои секции, VACUUM и архивация работают с отдельными месяцами. Первичный ключ включает
+-- ключ секционирования; id по-прежнему выдаёт transactions_id_seq.
+-- Даты вне созданных секций попадают в transactions_default.
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+ALTER INDEX transactions_pkey RENAME TO transactions_unpartitioned_pkey;
+ALTER INDEX idx_transactions_wallet_date_id RENAME TO idx_transactions_unpartitioned_wallet_date_id;
+
+CREATE TABLE transactions (
+    id BIGINT NOT NULL DEFAULT nextval('transactions_id_seq'),
+    wallet_id BIGINT REFERENCES wallets(id),
+    category_id BIGINT REFERENCES categories(id),
+    amount NUMERIC(19, 2) NOT NULL,
+    description VARCHAR(255),
+    date TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, date)
+) PARTITION BY RANGE (date);
+
+ALTER TABLE transactions_unpartitioned ALTER COLUMN id DROP DEFAULT;
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions.id;
+
+CREATE INDEX idx_transactions_wallet_date_id ON transactions (wallet_id, date, id);
+
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+-- Секции transactions_YYYY_MM для месяцев [from_month, to_month]; возвращает число созданных.
+-- Строки месяца, уже попавшие в DEFAULT, переносятся в новую секцию до её подключения
+CREATE FUNCTION create_transaction_partitions(from_month DATE, to_month DATE) RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    m DATE := date_trunc('month', from_month);
+    next_m DATE;
+    part TEXT;
+    created INT := 0;
+BEGIN
+    WHILE m <= to_month LOOP
+        next_m := (m + INTERVAL '1 month')::date;
+        part := 'transactions_' || to_char(m, 'YYYY_MM');
+        IF to_regclass(part) IS NULL THEN
+            EXECUTE format(
+                'CREATE TABLE %I (LIKE transactions INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                part);
+            EXECUTE format(
+                'WITH moved AS (DELETE FROM transactions_default'
+                    || ' WHERE date >= %L AND date < %L RETURNING *)'
+                    || ' INSERT INTO %I SELECT * FROM moved',
+                m, next_m, part);
+            EXECUTE format(
+                'ALTER TABLE transactions ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                part, m, next_m);
+            created := created + 1;
+        END IF;
+        m := next_m;
+    END LOOP;
+    RETURN created;
+END;
+$$;
+
+-- Отключает месячные секции старше before_month: таблицы остаются для архивации,
+-- но запросы к transactions их больше не видят. Возвращает число отключённых
+CREATE FUNCTION detach_transaction_partitions(before_month DATE) RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    part TEXT;
+    detached INT := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'transactions'::regclass
+          AND c.relname ~ '^transactions_[0-9]{4}_[0-9]{2}$'
+          AND to_date(substr(c.relname, 14), 'YYYY_MM') < date_trunc('month', before_month)
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE transactions DETACH PARTITION %I', part);
+        detached := detached + 1;
+    END LOOP;
+    RETURN detached;
+END;
+$$;
+
+SELECT create_transaction_partitions(
+    COALESCE((SELECT MIN(date) FROM transactions_unpartitioned), CURRENT_DATE)::date,
+    GREATEST(
+        (SELECT MAX(date) FROM transactions_unpartitioned),
+        CURRENT_DATE + INTERVAL '3 months')::date);
+
+INSERT INTO transactions (id, wallet_id, category_id, amount, description, date)
+SELECT id, wallet_id, category_id, amount, description, date FROM transactions_unpartitioned;
+
+DROP TABLE transactions_unpartitioned;
+
+ANALYZE transactions;
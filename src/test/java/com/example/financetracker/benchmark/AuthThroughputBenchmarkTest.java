@@ -0,0 +1,69 @@
+package com.example.financetracker.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.financetracker.dto.AccountRef;
+import com.example.financetracker.repository.UserRepository;
+import com.example.financetracker.service.AuthService;
+import com.example.financetracker.service.TokenService;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+// Запросов в секунду на ядро (один поток) для Basic (BCrypt) и Bearer-токена
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthThroughputBenchmarkTest {
+
+  private static final int REQUESTS = Integer.getInteger("bench.requests", 2_000);
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private AuthService authService;
+  @Autowired private TokenService tokenService;
+  @Autowired private UserRepository userRepository;
+
+  @Test
+  void basicVersusBearer() throws Exception {
+    String username = "bench-auth-" + System.nanoTime();
+    authService.register(username, "pass");
+
+    String basic =
+        "Basic "
+            + Base64.getEncoder()
+                .encodeToString((username + ":pass").getBytes(StandardCharsets.UTF_8));
+    AccountRef account = userRepository.findAccountByUsername(username).orElseThrow();
+    String bearer = "Bearer " + tokenService.issue(account);
+
+    double basicRate = measure(basic);
+    double bearerRate = measure(bearer);
+
+    System.out.printf(
+        "GET /categories per core: basic %.0f req/s, bearer %.0f req/s, speedup %.1fx%n",
+        basicRate, bearerRate, bearerRate / basicRate);
+  }
+
+  private double measure(String authorization) throws Exception {
+    for (int i = 0; i < REQUESTS / 10; i++) {
+      call(authorization);
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < REQUESTS; i++) {
+      call(authorization);
+    }
+    return REQUESTS / ((System.nanoTime() - start) / 1e9);
+  }
+
+  private void call(String authorization) throws Exception {
+    mockMvc
+        .perform(get("/api/finance/categories").header(HttpHeaders.AUTHORIZATION, authorization))
+        .andExpect(status().isOk());
+  }
+}
@@ -0,0 +1,73 @@
+package com.example.financetracker.benchmark;
+
+import com.example.financetracker.dto.CategoryDto;
+import com.example.financetracker.dto.TransactionDto;
+import com.example.financetracker.entity.TransactionType;
+import com.example.financetracker.service.AuthService;
+import com.example.financetracker.service.FinanceService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Сравнение построчной и пакетной загрузки: ./gradlew benchmark -Dbench.rows=20000
+@Tag("benchmark")
+@SpringBootTest
+class BulkIngestionBenchmarkTest {
+
+  private static final int ROWS = Integer.getInteger("bench.rows", 5_000);
+  private static final int BATCH = 500;
+
+  @Autowired private AuthService authService;
+  @Autowired private FinanceService financeService;
+
+  @Test
+  void singleRowVersusBulk() {
+    String username = "bench-bulk-" + System.nanoTime();
+    authService.register(username, "pass");
+    CategoryDto category = new CategoryDto();
+    category.setName("Salary");
+    category.setType(TransactionType.INCOME);
+    financeService.createCategory(username, category);
+
+    // Прогрев пулов соединений и JIT
+    for (int i = 0; i < 200; i++) {
+      financeService.addTransaction(username, transaction(i));
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < ROWS; i++) {
+      financeService.addTransaction(username, transaction(i));
+    }
+    double singleRate = ROWS / seconds(start);
+
+    start = System.nanoTime();
+    for (int offset = 0; offset < ROWS; offset += BATCH) {
+      List<TransactionDto> batch = new ArrayList<>(BATCH);
+      for (int i = offset; i < Math.min(offset + BATCH, ROWS); i++) {
+        batch.add(transaction(i));
+      }
+      financeService.addTransactions(username, batch);
+    }
+    double bulkRate = ROWS / seconds(start);
+
+    System.out.printf(
+        "rows=%d single-row: %.0f rows/s, bulk(%d): %.0f rows/s, speedup %.1fx%n",
+        ROWS, singleRate, BATCH, bulkRate, bulkRate / singleRate);
+  }
+
+  private static TransactionDto transaction(int i) {
+    TransactionDto dto = new TransactionDto();
+    dto.setCategoryName("Salary");
+    dto.setAmount(BigDecimal.ONE);
+    dto.setDescription("bench " + i);
+    return dto;
+  }
+
+  private static double seconds(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1e9;
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.financetracker.benchmark;
+
+import com.example.financetracker.repository.WalletRepository;
+import com.example.financetracker.service.AuthService;
+import com.example.financetracker.service.BalanceService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Зачислений в секунду на один горячий кошелёк в зависимости от числа полос баланса.
+// Только слой баланса: суммы категорий и дневные/месячные суммы здесь не обновляются
+@Tag("benchmark")
+@SpringBootTest
+class ShardedBalanceBenchmarkTest {
+
+  private static final long DURATION_MS = Long.getLong("bench.durationMs", 5_000);
+  private static final int THREADS = Integer.getInteger("bench.threads", 32);
+  private static final int[] SHARDS = {1, 4, 16};
+
+  @Autowired private AuthService authService;
+  @Autowired private BalanceService balanceService;
+  @Autowired private WalletRepository walletRepository;
+
+  @Test
+  void hotWalletCredits() throws Exception {
+    for (int shards : SHARDS) {
+      String username = "bench-shards-" + shards + "-" + System.nanoTime();
+      authService.register(username, "pass");
+      Long walletId = walletRepository.findIdByUsername(username).orElseThrow();
+      if (shards > 1) {
+        balanceService.enableSharding(walletId, shards);
+      }
+
+      ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+      AtomicLong ops = new AtomicLong();
+      long deadline = System.currentTimeMillis() + DURATION_MS;
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  while (System.currentTimeMillis() < deadline) {
+                    balanceService.credit(walletId, BigDecimal.ONE);
+                    ops.incrementAndGet();
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      pool.shutdown();
+
+      BigDecimal balance = balanceService.getBalance(walletId);
+      if (balance.longValueExact() != ops.get()) {
+        throw new AssertionError("balance " + balance + " != credits " + ops.get());
+      }
+      System.out.printf(
+          "shards=%d threads=%d hot-wallet credits: %.0f ops/s%n",
+          shards, THREADS, ops.get() / (DURATION_MS / 1000.0));
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.financetracker.benchmark;
+
+import com.example.financetracker.dto.CategoryDto;
+import com.example.financetracker.dto.TransactionDto;
+import com.example.financetracker.dto.TransferRequest;
+import com.example.financetracker.entity.TransactionType;
+import com.example.financetracker.service.AuthService;
+import com.example.financetracker.service.FinanceService;
+import com.example.financetracker.service.TransferEngine;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Переводов в секунду на N потоках; получатели выбираются по Zipf (горячие кошельки)
+@Tag("benchmark")
+@SpringBootTest
+class TransferBenchmarkTest {
+
+  private static final int USERS = Integer.getInteger("bench.users", 50);
+  private static final double ZIPF_EXPONENT = 1.2;
+  private static final long DURATION_MS = Long.getLong("bench.durationMs", 5_000);
+  private static final int[] THREADS = {1, 4, 16, 64};
+
+  @Autowired private AuthService authService;
+  @Autowired private FinanceService financeService;
+  @Autowired private TransferEngine transferEngine;
+
+  @Test
+  void skewedTransfers() throws Exception {
+    String prefix = "bench-transfer-" + System.nanoTime() + "-";
+    List<String> users = new ArrayList<>();
+    for (int i = 0; i < USERS; i++) {
+      String username = prefix + i;
+      authService.register(username, "pass");
+      CategoryDto category = new CategoryDto();
+      category.setName("Salary");
+      category.setType(TransactionType.INCOME);
+      financeService.createCategory(username, category);
+      TransactionDto income = new TransactionDto();
+      income.setCategoryName("Salary");
+      income.setAmount(new BigDecimal("1000000000"));
+      financeService.addTransaction(username, income);
+      users.add(username);
+    }
+    double[] cdf = zipfCdf(USERS);
+
+    for (int threads : THREADS) {
+      ExecutorService pool = Executors.newFixedThreadPool(threads);
+      AtomicLong ops = new AtomicLong();
+      long deadline = System.currentTimeMillis() + DURATION_MS;
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  ThreadLocalRandom random = ThreadLocalRandom.current();
+                  while (System.currentTimeMillis() < deadline) {
+                    int sender = random.nextInt(USERS);
+                    int receiver = sample(cdf, random.nextDouble());
+                    if (sender == receiver) {
+                      continue;
+                    }
+                    TransferRequest request = new TransferRequest();
+                    request.setReceiverUsername(users.get(receiver));
+                    request.setAmount(BigDecimal.ONE);
+                    transferEngine.transfer(users.get(sender), request);
+                    ops.incrementAndGet();
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      pool.shutdown();
+      System.out.printf(
+          "threads=%d users=%d zipf(%.1f) transfers: %.0f/s%n",
+          threads, USERS, ZIPF_EXPONENT, ops.get() / (DURATION_MS / 1000.0));
+    }
+  }
+
+  private static double[] zipfCdf(int n) {
+    double[] cdf = new double[n];
+    double sum = 0;
+    for (int i = 0; i < n; i++) {
+      sum += 1.0 / Math.pow(i + 1, ZIPF_EXPONENT);
+      cdf[i] = sum;
+    }
+    for (int i = 0; i < n; i++) {
+      cdf[i] /= sum;
+    }
+    return cdf;
+  }
+
+  private static int sample(double[] cdf, double u) {
+    int index = Arrays.binarySearch(cdf, u);
+    return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+  }
+}
@@ -0,0 +1,93 @@
+package com.example.financetracker.benchmark;
+
+import com.example.financetracker.config.ConcurrencyLimitingDataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// Платформенные потоки (пул как у Tomcat) против виртуальных при всплеске запросов.
+// БД имитируется: каждый запрос делает несколько обращений, каждое держит соединение
+// bench.roundTripMs; одновременных соединений не больше bench.dbConcurrency
+@Tag("benchmark")
+class VirtualThreadsBenchmarkTest {
+
+  private static final int REQUESTS = Integer.getInteger("bench.requests", 20_000);
+  private static final int ROUND_TRIPS = Integer.getInteger("bench.roundTrips", 4);
+  private static final long ROUND_TRIP_MS = Long.getLong("bench.roundTripMs", 5);
+  private static final int DB_CONCURRENCY = Integer.getInteger("bench.dbConcurrency", 100);
+  private static final int PLATFORM_THREADS = Integer.getInteger("bench.platformThreads", 200);
+
+  @Test
+  void platformVersusVirtualThreads() throws Exception {
+    run("platform", Executors.newFixedThreadPool(PLATFORM_THREADS));
+    run("virtual", Executors.newVirtualThreadPerTaskExecutor());
+  }
+
+  private void run(String name, ExecutorService executor) throws Exception {
+    DataSource dataSource =
+        new ConcurrencyLimitingDataSource(slowDataSource(), DB_CONCURRENCY, Duration.ofMinutes(1));
+    long[] latencies = new long[REQUESTS];
+    List<Future<?>> futures = new ArrayList<>(REQUESTS);
+
+    long start = System.nanoTime();
+    for (int i = 0; i < REQUESTS; i++) {
+      int index = i;
+      long submitted = System.nanoTime();
+      futures.add(
+          executor.submit(
+              () -> {
+                for (int trip = 0; trip < ROUND_TRIPS; trip++) {
+                  try (Connection connection = dataSource.getConnection()) {
+                    connection.isValid(1);
+                  }
+                }
+                latencies[index] = System.nanoTime() - submitted;
+                return null;
+              }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    long elapsed = System.nanoTime() - start;
+    executor.shutdown();
+
+    Arrays.sort(latencies);
+    System.out.printf(
+        "%-8s requests=%d: %.0f req/s, p50 %.1f ms, p99 %.1f ms%n",
+        name,
+        REQUESTS,
+        REQUESTS / (elapsed / 1e9),
+        latencies[REQUESTS / 2] / 1e6,
+        latencies[(int) (REQUESTS * 0.99)] / 1e6);
+  }
+
+  // Каждое обращение к соединению — сетевой круг до медленной БД
+  private static DataSource slowDataSource() {
+    Connection connection =
+        (Connection)
+            Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                  if (method.getName().equals("isValid")) {
+                    Thread.sleep(ROUND_TRIP_MS);
+                    return true;
+                  }
+                  return null;
+                });
+    return (DataSource)
+        Proxy.newProxyInstance(
+            DataSource.class.getClassLoader(),
+            new Class<?>[] {DataSource.class},
+            (proxy, method, args) -> method.getName().equals("getConnection") ? connection : null);
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.financetracker.benchmark;
+
+import com.example.financetracker.dto.CategoryDto;
+import com.example.financetracker.dto.TransactionDto;
+import com.example.financetracker.entity.TransactionType;
+import com.example.financetracker.service.AuthService;
+import com.example.financetracker.service.FinanceService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Операций в секунду при записи множества потоков в один кошелёк
+@Tag("benchmark")
+@SpringBootTest
+class WalletContentionBenchmarkTest {
+
+  private static final long DURATION_MS = Long.getLong("bench.durationMs", 5_000);
+  private static final int[] THREADS = {1, 4, 16, 64};
+
+  @Autowired private AuthService authService;
+  @Autowired private FinanceService financeService;
+
+  @Test
+  void sameWalletContention() throws Exception {
+    String username = "bench-contention-" + System.nanoTime();
+    authService.register(username, "pass");
+    createCategory(username, "Salary", TransactionType.INCOME);
+    createCategory(username, "Food", TransactionType.EXPENSE);
+    financeService.addTransaction(username, transaction("Salary", "1000000000"));
+
+    for (int threads : THREADS) {
+      ExecutorService pool = Executors.newFixedThreadPool(threads);
+      AtomicLong ops = new AtomicLong();
+      long deadline = System.currentTimeMillis() + DURATION_MS;
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  while (System.currentTimeMillis() < deadline) {
+                    financeService.addTransaction(username, transaction("Food", "1"));
+                    ops.incrementAndGet();
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      pool.shutdown();
+      System.out.printf(
+          "threads=%d same-wallet expenses: %.0f ops/s%n",
+          threads, ops.get() / (DURATION_MS / 1000.0));
+    }
+  }
+
+  private void createCategory(String username, String name, TransactionType type) {
+    CategoryDto dto = new CategoryDto();
+    dto.setName(name);
+    dto.setType(type);
+    financeService.createCategory(username, dto);
+  }
+
+  private static TransactionDto transaction(String category, String amount) {
+    TransactionDto dto = new TransactionDto();
+    dto.setCategoryName(category);
+    dto.setAmount(new BigDecimal(amount));
+    return dto;
+  }
+}
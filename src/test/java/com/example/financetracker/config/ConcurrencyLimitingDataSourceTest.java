@@ -0,0 +1,49 @@
+package com.example.financetracker.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitingDataSourceTest {
+
+  @Mock private DataSource target;
+  @Mock private Connection connection;
+
+  private ConcurrencyLimitingDataSource dataSource;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    when(target.getConnection()).thenReturn(connection);
+    dataSource = new ConcurrencyLimitingDataSource(target, 1, Duration.ofMillis(50));
+  }
+
+  @Test
+  void getConnection_WaitsForPermitThenTimesOut() throws Exception {
+    Connection first = dataSource.getConnection();
+
+    assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+    first.close();
+    verify(connection).close();
+    assertNotNull(dataSource.getConnection());
+  }
+
+  @Test
+  void close_Twice_ReleasesPermitOnce() throws Exception {
+    Connection first = dataSource.getConnection();
+    first.close();
+    first.close();
+
+    assertEquals(1, dataSource.getAvailablePermits());
+  }
+}
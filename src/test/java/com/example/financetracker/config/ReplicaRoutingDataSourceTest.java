@@ -0,0 +1,148 @@
+package com.example.financetracker.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.financetracker.dto.AccountRef;
+import com.example.financetracker.service.AccountPrincipal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Две базы H2 в памяти вместо primary и реплики; какая ответила, видно по имени базы.
+// Репликации между ними нет: строка, записанная в primary, на реплике не появляется
+class ReplicaRoutingDataSourceTest {
+
+  private static final String PRIMARY = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+  private static final String REPLICA = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+  private ReplicaRoutingDataSource routing;
+  private TransactionTemplate readOnly;
+  private TransactionTemplate readWrite;
+  private JdbcTemplate jdbc;
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+    routing.close();
+  }
+
+  @Test
+  void readOnlyTransaction_GoesToReplica_WritesGoToPrimary() {
+    createRouting(REPLICA);
+
+    assertEquals("PRIMARY", databaseIn(readWrite));
+    assertEquals("REPLICA", databaseIn(readOnly));
+    // Вне транзакции (auto-commit) — тоже primary
+    assertEquals("PRIMARY", jdbc.queryForObject("SELECT DATABASE()", String.class));
+  }
+
+  @Test
+  void afterOwnWrite_UserReadsFromPrimary() {
+    createRouting(REPLICA);
+    authenticate(1L, "alice");
+
+    readWrite.executeWithoutResult(status -> jdbc.execute("SELECT 1"));
+
+    assertEquals("PRIMARY", databaseIn(readOnly));
+    authenticate(2L, "bob");
+    assertEquals("REPLICA", databaseIn(readOnly));
+  }
+
+  @Test
+  void afterOwnWrite_UserSeesOwnRow_OthersAndBackgroundThreadsReadReplica() {
+    createRouting(REPLICA);
+    createNotes(PRIMARY);
+    createNotes(REPLICA);
+    authenticate(1L, "alice");
+
+    readWrite.executeWithoutResult(status -> jdbc.update("INSERT INTO notes VALUES (1)"));
+
+    assertEquals(1, notesIn(readOnly));
+    authenticate(2L, "bob");
+    assertEquals(0, notesIn(readOnly));
+    // Поток без запроса (планировщик, рассылка SSE) пользователя не знает и читает с реплики
+    SecurityContextHolder.clearContext();
+    assertEquals(0, CompletableFuture.supplyAsync(() -> notesIn(readOnly)).join());
+  }
+
+  @Test
+  void stickiness_FollowsUserIdNotName() {
+    createRouting(REPLICA);
+    authenticate(1L, "alice");
+
+    readWrite.executeWithoutResult(status -> jdbc.execute("SELECT 1"));
+
+    // Имя освободилось и досталось другому пользователю
+    authenticate(3L, "alice");
+    assertEquals("REPLICA", databaseIn(readOnly));
+  }
+
+  @Test
+  void rolledBackWrite_DoesNotStick() {
+    createRouting(REPLICA);
+    authenticate(1L, "alice");
+
+    readWrite.executeWithoutResult(
+        status -> {
+          jdbc.execute("SELECT 1");
+          status.setRollbackOnly();
+        });
+
+    assertEquals("REPLICA", databaseIn(readOnly));
+  }
+
+  @Test
+  void unavailableReplica_FallsBackToPrimary() {
+    createRouting("jdbc:h2:tcp://127.0.0.1:1/unreachable");
+
+    assertEquals("PRIMARY", databaseIn(readOnly));
+    assertEquals(0, routing.getHealthyReplicas());
+  }
+
+  private void createRouting(String replicaUrl) {
+    routing =
+        new ReplicaRoutingDataSource(
+            new DriverManagerDataSource(PRIMARY),
+            List.of(new DriverManagerDataSource(replicaUrl)),
+            Duration.ofMinutes(1),
+            Duration.ofMinutes(1));
+    DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    readWrite = new TransactionTemplate(transactionManager);
+    readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+    jdbc = new JdbcTemplate(dataSource);
+  }
+
+  private String databaseIn(TransactionTemplate transaction) {
+    return transaction.execute(status -> jdbc.queryForObject("SELECT DATABASE()", String.class));
+  }
+
+  private int notesIn(TransactionTemplate transaction) {
+    return transaction.execute(
+        status -> jdbc.queryForObject("SELECT COUNT(*) FROM notes", Integer.class));
+  }
+
+  private static void createNotes(String url) {
+    JdbcTemplate database = new JdbcTemplate(new DriverManagerDataSource(url));
+    database.execute("CREATE TABLE IF NOT EXISTS notes (id INT)");
+    database.execute("DELETE FROM notes");
+  }
+
+  private static void authenticate(Long userId, String username) {
+    AccountPrincipal principal =
+        AccountPrincipal.fromToken(new AccountRef(userId, userId, username));
+    SecurityContextHolder.getContext()
+        .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+  }
+}
@@ -0,0 +1,110 @@
+package com.example.financetracker.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.financetracker.dto.CategoryDto;
+import com.example.financetracker.entity.Category;
+import com.example.financetracker.entity.TransactionType;
+import com.example.financetracker.repository.CategoryRepository;
+import com.example.financetracker.repository.CategoryTotalRepository;
+import com.example.financetracker.repository.DailyCategoryTotalRepository;
+import com.example.financetracker.repository.MonthlyCategoryTotalRepository;
+import com.example.financetracker.repository.TransactionRepository;
+import com.example.financetracker.repository.UserRepository;
+import com.example.financetracker.service.AuthService;
+import com.example.financetracker.service.FinanceService;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Пользователь и категории читаются из кэша второго уровня, а записи через сервисы его обновляют
+@SpringBootTest
+class SecondLevelCacheTest {
+
+  @Autowired private AuthService authService;
+  @Autowired private FinanceService financeService;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Autowired private UserRepository userRepository;
+  @Autowired private CategoryRepository categoryRepository;
+  @Autowired private CategoryTotalRepository categoryTotalRepository;
+  @Autowired private DailyCategoryTotalRepository dailyCategoryTotalRepository;
+  @Autowired private MonthlyCategoryTotalRepository monthlyCategoryTotalRepository;
+  @Autowired private TransactionRepository transactionRepository;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    categoryTotalRepository.deleteAllInBatch();
+    dailyCategoryTotalRepository.deleteAllInBatch();
+    monthlyCategoryTotalRepository.deleteAllInBatch();
+    transactionRepository.deleteAll();
+    categoryRepository.deleteAll();
+    userRepository.deleteAll();
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+  }
+
+  @Test
+  void findByUsername_AfterRegistration_ServedFromNaturalIdCache() {
+    assertTrue(userRepository.findByUsername("cached").isEmpty());
+    authService.register("cached", "pass");
+
+    Long id = userRepository.findByUsername("cached").orElseThrow().getId();
+    statistics.clear();
+    assertEquals(id, userRepository.findByUsername("cached").orElseThrow().getId());
+
+    assertEquals(1, statistics.getNaturalIdCacheHitCount());
+    assertEquals(0, statistics.getNaturalIdQueryExecutionCount());
+    assertEquals(
+        1, statistics.getDomainDataRegionStatistics(HibernateCacheConfig.USERS).getHitCount());
+  }
+
+  @Test
+  void createCategory_InvalidatesCachedCategoryQuery() {
+    authService.register("cached", "pass");
+    Long userId = userRepository.findByUsername("cached").orElseThrow().getId();
+    financeService.createCategory("cached", category("Food", TransactionType.EXPENSE));
+
+    categoryRepository.findByUserId(userId);
+    statistics.clear();
+    assertEquals(1, categoryRepository.findByUserId(userId).size());
+    assertEquals(1, statistics.getQueryCacheHitCount());
+
+    financeService.createCategory("cached", category("Salary", TransactionType.INCOME));
+
+    assertEquals(2, categoryRepository.findByUserId(userId).size());
+  }
+
+  @Test
+  void updateCategory_CachedEntityHasNewState() {
+    authService.register("cached", "pass");
+    Category created =
+        financeService.createCategory("cached", category("Food", TransactionType.EXPENSE));
+    categoryRepository.findById(created.getId());
+
+    CategoryDto dto = category("Groceries", TransactionType.EXPENSE);
+    dto.setBudgetLimit(new BigDecimal("500.00"));
+    financeService.updateCategory("cached", created.getId(), dto);
+
+    statistics.clear();
+    Category cached = categoryRepository.findById(created.getId()).orElseThrow();
+    assertEquals("Groceries", cached.getName());
+    assertEquals(0, new BigDecimal("500").compareTo(cached.getBudgetLimit()));
+    assertEquals(1, statistics.getSecondLevelCacheHitCount());
+  }
+
+  private static CategoryDto category(String name, TransactionType type) {
+    CategoryDto dto = new CategoryDto();
+    dto.setName(name);
+    dto.setType(type);
+    return dto;
+  }
+}
@@ -1,20 +1,32 @@
 package com.example.financetracker.controller;
 
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.example.financetracker.repository.CategoryRepository;
+import com.example.financetracker.repository.CategoryTotalRepository;
+import com.example.financetracker.repository.DailyCategoryTotalRepository;
+import com.example.financetracker.repository.IdempotencyRecordRepository;
+import com.example.financetracker.repository.MonthlyCategoryTotalRepository;
 import com.example.financetracker.repository.TransactionRepository;
 import com.example.financetracker.repository.UserRepository;
 import com.example.financetracker.repository.WalletRepository;
 import com.example.financetracker.service.AuthService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.security.test.context.support.TestExecutionEvent;
+import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.web.servlet.MockMvc;
 
 @SpringBootTest
@@ -23,17 +35,26 @@ class FinanceControllerTest {
 
   @Autowired private MockMvc mockMvc;
   @Autowired private AuthService authService;
+  @Autowired private ObjectMapper objectMapper;
 
   // Внедряем репозитории для очистки базы
   @Autowired private UserRepository userRepository;
   @Autowired private CategoryRepository categoryRepository;
+  @Autowired private CategoryTotalRepository categoryTotalRepository;
+  @Autowired private DailyCategoryTotalRepository dailyCategoryTotalRepository;
+  @Autowired private MonthlyCategoryTotalRepository monthlyCategoryTotalRepository;
   @Autowired private TransactionRepository transactionRepository;
   @Autowired private WalletRepository walletRepository;
+  @Autowired private IdempotencyRecordRepository idempotencyRecordRepository;
 
   @BeforeEach
   void setUp() {
     // 1. Полная очистка базы перед каждым тестом
     // Порядок важен из-за внешних ключей!
+    idempotencyRecordRepository.deleteAllInBatch();
+    categoryTotalRepository.deleteAllInBatch();
+    dailyCategoryTotalRepository.deleteAllInBatch();
+    monthlyCategoryTotalRepository.deleteAllInBatch();
     transactionRepository.deleteAll();
     categoryRepository.deleteAll();
     // Wallet удалится каскадно при удалении User, либо можно явно: walletRepository.deleteAll();
@@ -44,7 +65,7 @@ class FinanceControllerTest {
   }
 
   @Test
-  @WithMockUser(username = "user1")
+  @WithUserDetails(value = "user1", setupBefore = TestExecutionEvent.TEST_EXECUTION)
   void createCategory_ShouldReturn200() throws Exception {
     String json =
         """
@@ -68,4 +89,186 @@ class FinanceControllerTest {
             post("/api/finance/categories").contentType(MediaType.APPLICATION_JSON).content("{}"))
         .andExpect(status().isUnauthorized());
   }
+
+  @Test
+  void login_ThenBearerToken_ShouldAuthenticate() throws Exception {
+    String body =
+        mockMvc
+            .perform(
+                post("/api/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"username\": \"user1\", \"password\": \"pass\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.token").exists())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    String token = objectMapper.readTree(body).get("token").asText();
+
+    mockMvc
+        .perform(
+            get("/api/finance/categories").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(
+            get("/api/finance/categories")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token + "x"))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void login_WrongPassword_ShouldReturn401() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"user1\", \"password\": \"wrong\"}"))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  @WithUserDetails(value = "user1", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+  void statsAndHistory_WithPeriod_ShouldIncludeWholeLastDay() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/finance/categories")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Salary\", \"type\": \"INCOME\"}"))
+        .andExpect(status().isOk());
+    String[] dates = {"2024-01-31T12:00:00", "2024-02-10T12:00:00", "2024-03-31T23:59:59.500"};
+    for (String date : dates) {
+      mockMvc
+          .perform(
+              post("/api/finance/transactions")
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(
+                      "{\"categoryName\": \"Salary\", \"amount\": 10, \"date\": \""
+                          + date
+                          + "\"}"))
+          .andExpect(status().isOk());
+    }
+
+    mockMvc
+        .perform(get("/api/finance/stats").param("from", "2024-02-01").param("to", "2024-03-31"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalIncome").value(20));
+    mockMvc
+        .perform(
+            get("/api/finance/transactions").param("from", "2024-02-01").param("to", "2024-03-31"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(2));
+  }
+
+  @Test
+  @WithUserDetails(value = "user1", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+  void addTransaction_RetriedWithSameIdempotencyKey_AppliedOnce() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/finance/categories")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Salary\", \"type\": \"INCOME\"}"))
+        .andExpect(status().isOk());
+    String json = "{\"categoryName\": \"Salary\", \"amount\": 10}";
+    for (int i = 0; i < 2; i++) {
+      mockMvc
+          .perform(
+              post("/api/finance/transactions")
+                  .header("Idempotency-Key", "retry-1")
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(json))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.message").value("Success"));
+    }
+
+    mockMvc
+        .perform(get("/api/finance/balance"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.balance").value(10));
+    mockMvc
+        .perform(
+            post("/api/finance/transactions")
+                .header("Idempotency-Key", "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"categoryName\": \"Salary\", \"amount\": 20}"))
+        .andExpect(status().isUnprocessableEntity());
+  }
+
+  @Test
+  @WithUserDetails(value = "user1", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+  void transfer_FailedWithIdempotencyKey_KeyRolledBackWithTransfer() throws Exception {
+    authService.register("user2", "pass");
+    String json = "{\"receiverUsername\": \"user2\", \"amount\": 10}";
+    mockMvc
+        .perform(
+            post("/api/finance/transfer")
+                .header("Idempotency-Key", "transfer-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+        .andExpect(status().isBadRequest());
+    // Ключ откатился вместе с переводом
+    assertEquals(0, idempotencyRecordRepository.count());
+
+    mockMvc
+        .perform(
+            post("/api/finance/categories")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Salary\", \"type\": \"INCOME\"}"))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(
+            post("/api/finance/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"categoryName\": \"Salary\", \"amount\": 10}"))
+        .andExpect(status().isOk());
+    for (int i = 0; i < 2; i++) {
+      mockMvc
+          .perform(
+              post("/api/finance/transfer")
+                  .header("Idempotency-Key", "transfer-1")
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(json))
+          .andExpect(status().isOk());
+    }
+
+    mockMvc
+        .perform(get("/api/finance/balance"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.balance").value(0));
+    assertEquals(1, idempotencyRecordRepository.count());
+  }
+
+  @Test
+  @WithUserDetails(value = "user1", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+  void getStats_IfNoneMatchCurrentVersion_Returns304UntilDataChanges() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/finance/categories")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Salary\", \"type\": \"INCOME\"}"))
+        .andExpect(status().isOk());
+    String etag =
+        mockMvc
+            .perform(get("/api/finance/stats"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/api/finance/stats").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+    mockMvc
+        .perform(
+            post("/api/finance/transactions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"categoryName\": \"Salary\", \"amount\": 10}"))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(get("/api/finance/stats").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+        .andExpect(jsonPath("$.totalIncome").value(10));
+  }
 }
@@ -0,0 +1,141 @@
+package com.example.financetracker.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.financetracker.dto.CategoryDto;
+import com.example.financetracker.dto.TransactionDto;
+import com.example.financetracker.entity.TransactionType;
+import com.example.financetracker.repository.CategoryRepository;
+import com.example.financetracker.repository.CategoryTotalRepository;
+import com.example.financetracker.repository.DailyCategoryTotalRepository;
+import com.example.financetracker.repository.MonthlyCategoryTotalRepository;
+import com.example.financetracker.repository.TransactionRepository;
+import com.example.financetracker.repository.UserRepository;
+import com.example.financetracker.service.AuthService;
+import com.example.financetracker.service.FinanceService;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.TestExecutionEvent;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+// Пути чтения выполняют одно и то же число SQL-запросов независимо от объёма истории
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReadModelStatementCountTest {
+
+  private static final Map<String, MockHttpServletRequestBuilder> GETS = new LinkedHashMap<>();
+
+  static {
+    GETS.put("categories", get("/api/finance/categories"));
+    GETS.put("transactions", get("/api/finance/transactions").param("size", "100"));
+    GETS.put("stats", get("/api/finance/stats"));
+    GETS.put(
+        "stats-period",
+        get("/api/finance/stats").param("from", "2024-01-10").param("to", "2024-03-20"));
+    GETS.put("balance", get("/api/finance/balance"));
+    GETS.put("export", get("/api/finance/export"));
+  }
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private AuthService authService;
+  @Autowired private FinanceService financeService;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Autowired private UserRepository userRepository;
+  @Autowired private CategoryRepository categoryRepository;
+  @Autowired private CategoryTotalRepository categoryTotalRepository;
+  @Autowired private DailyCategoryTotalRepository dailyCategoryTotalRepository;
+  @Autowired private MonthlyCategoryTotalRepository monthlyCategoryTotalRepository;
+  @Autowired private TransactionRepository transactionRepository;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    categoryTotalRepository.deleteAllInBatch();
+    dailyCategoryTotalRepository.deleteAllInBatch();
+    monthlyCategoryTotalRepository.deleteAllInBatch();
+    transactionRepository.deleteAll();
+    categoryRepository.deleteAll();
+    userRepository.deleteAll();
+
+    authService.register("reader", "pass");
+    for (int i = 0; i < 5; i++) {
+      CategoryDto dto = new CategoryDto();
+      dto.setName("Category " + i);
+      dto.setType(i == 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
+      dto.setBudgetLimit(i == 0 ? null : new BigDecimal("1000"));
+      financeService.createCategory("reader", dto);
+    }
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+  }
+
+  @Test
+  @WithUserDetails(value = "reader", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+  void getEndpoints_StatementCountDoesNotGrowWithRows() throws Exception {
+    addTransactions(10);
+    Map<String, Long> small = countStatements();
+
+    addTransactions(300);
+    Map<String, Long> large = countStatements();
+
+    assertEquals(small, large);
+    large.forEach((endpoint, count) -> assertTrue(count <= 6, endpoint + ": " + count));
+  }
+
+  private Map<String, Long> countStatements() throws Exception {
+    Map<String, Long> counts = new LinkedHashMap<>();
+    for (Map.Entry<String, MockHttpServletRequestBuilder> entry : GETS.entrySet()) {
+      // Первый вызов прогревает кэш категорий, замеряется второй
+      mockMvc.perform(entry.getValue()).andExpect(status().isOk());
+      statistics.clear();
+      mockMvc.perform(entry.getValue()).andExpect(status().isOk());
+      counts.put(entry.getKey(), statistics.getPrepareStatementCount());
+    }
+
+    // Прогрев тоже дожидается конца потока, иначе его запросы попадут в замер
+    MvcResult warmup =
+        mockMvc.perform(get("/api/finance/export").param("format", "ndjson")).andReturn();
+    mockMvc.perform(asyncDispatch(warmup)).andExpect(status().isOk());
+    statistics.clear();
+    MvcResult result =
+        mockMvc.perform(get("/api/finance/export").param("format", "ndjson")).andReturn();
+    mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+    counts.put("export-ndjson", statistics.getPrepareStatementCount());
+    return counts;
+  }
+
+  private void addTransactions(int count) {
+    List<TransactionDto> batch = new ArrayList<>(count);
+    LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+    for (int i = 0; i < count; i++) {
+      TransactionDto dto = new TransactionDto();
+      dto.setCategoryName("Category " + (i % 5));
+      dto.setAmount(i % 5 == 0 ? new BigDecimal("4") : BigDecimal.ONE);
+      dto.setDate(start.plusHours(7L * i));
+      batch.add(dto);
+    }
+    // Доход в каждой пятёрке покрывает четыре расхода, поэтому баланс пачки не отрицательный
+    financeService.addTransactions("reader", batch);
+  }
+}
@@ -0,0 +1,173 @@
+package com.example.financetracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.financetracker.entity.Wallet;
+import com.example.financetracker.entity.WalletBalanceShard;
+import com.example.financetracker.repository.TransactionRepository;
+import com.example.financetracker.repository.WalletBalanceShardRepository;
+import com.example.financetracker.repository.WalletRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceServiceTest {
+
+  @Mock private WalletRepository walletRepository;
+  @Mock private WalletBalanceShardRepository shardRepository;
+  @Mock private TransactionRepository transactionRepository;
+  @Mock private LedgerService ledgerService;
+
+  private BalanceService balanceService;
+
+  @BeforeEach
+  void setUp() {
+    balanceService =
+        new BalanceService(walletRepository, shardRepository, transactionRepository, ledgerService);
+  }
+
+  @Test
+  void credit_PlainWallet_UpdatesWalletRow() {
+    when(walletRepository.credit(1L, BigDecimal.TEN)).thenReturn(1);
+
+    balanceService.credit(1L, BigDecimal.TEN);
+
+    verifyNoInteractions(shardRepository);
+  }
+
+  @Test
+  void credit_ShardedWallet_GoesToOneShard() {
+    when(walletRepository.findLedgerById(1L)).thenReturn(Optional.of(false));
+    when(walletRepository.findBalanceShardsById(1L)).thenReturn(Optional.of(4));
+
+    balanceService.credit(1L, BigDecimal.TEN);
+
+    verify(shardRepository).credit(eq(1L), intThat(s -> s >= 0 && s < 4), eq(BigDecimal.TEN));
+  }
+
+  @Test
+  void debit_ShardedWallet_DrainsShardsWhenOneIsShort() {
+    when(walletRepository.findLedgerById(1L)).thenReturn(Optional.of(false));
+    when(walletRepository.findBalanceShardsById(1L)).thenReturn(Optional.of(3));
+    when(shardRepository.debit(eq(1L), anyInt(), any())).thenReturn(0, 1, 1);
+    when(shardRepository.lockAll(1L))
+        .thenReturn(List.of(shard(0, "30"), shard(1, "0"), shard(2, "50")));
+
+    balanceService.debit(1L, new BigDecimal("60"));
+
+    verify(shardRepository).debit(1L, 0, new BigDecimal("30"));
+    verify(shardRepository).debit(1L, 2, new BigDecimal("30"));
+  }
+
+  @Test
+  void debit_ShardedWallet_InsufficientAcrossShards() {
+    when(walletRepository.findLedgerById(1L)).thenReturn(Optional.of(false));
+    when(walletRepository.findBalanceShardsById(1L)).thenReturn(Optional.of(2));
+    when(shardRepository.lockAll(1L)).thenReturn(List.of(shard(0, "30"), shard(1, "20")));
+
+    assertThrows(RuntimeException.class, () -> balanceService.debit(1L, new BigDecimal("60")));
+  }
+
+  @Test
+  void credit_LedgerWallet_OnlyLocksForInsert() {
+    when(walletRepository.findLedgerById(1L)).thenReturn(Optional.of(true));
+
+    balanceService.credit(1L, BigDecimal.TEN);
+    balanceService.credit(1L, BigDecimal.TEN);
+
+    verify(ledgerService, times(2)).credit(1L);
+    // Журнальный режим запомнен после первого запроса
+    verify(walletRepository, times(1)).findLedgerById(1L);
+    verifyNoInteractions(shardRepository);
+  }
+
+  @Test
+  void lockForEntries_LedgerWallet_TakesCreditLock() {
+    when(walletRepository.findLedgerById(1L)).thenReturn(Optional.of(true));
+
+    balanceService.lockForEntries(1L);
+
+    verify(ledgerService).credit(1L);
+    verify(walletRepository, never()).credit(any(), any());
+  }
+
+  @Test
+  void lockForEntries_PlainWallet_NoWrites() {
+    when(walletRepository.findLedgerById(1L)).thenReturn(Optional.of(false));
+
+    balanceService.lockForEntries(1L);
+
+    verifyNoInteractions(ledgerService, shardRepository);
+    verify(walletRepository, never()).credit(any(), any());
+  }
+
+  @Test
+  void debit_PlainWalletInsufficient_DoesNotRememberMode() {
+    when(walletRepository.findLedgerById(1L)).thenReturn(Optional.of(false), Optional.of(true));
+    when(walletRepository.findBalanceShardsById(1L)).thenReturn(Optional.of(1));
+
+    assertThrows(RuntimeException.class, () -> balanceService.debit(1L, BigDecimal.TEN));
+    // Кошелёк перевели в журнальный режим: следующее списание идёт через журнал
+    balanceService.debit(1L, BigDecimal.TEN);
+
+    verify(ledgerService).debit(1L, BigDecimal.TEN);
+  }
+
+  @Test
+  void debit_PlainWalletInsufficient_SeesLaterSharding() {
+    when(walletRepository.findLedgerById(1L)).thenReturn(Optional.of(false));
+    when(walletRepository.findBalanceShardsById(1L)).thenReturn(Optional.of(1), Optional.of(4));
+    when(shardRepository.debit(eq(1L), anyInt(), eq(BigDecimal.TEN))).thenReturn(1);
+
+    assertThrows(RuntimeException.class, () -> balanceService.debit(1L, BigDecimal.TEN));
+    // Кошелёк шардировали из другого процесса: число полос перечитывается из БД
+    balanceService.debit(1L, BigDecimal.TEN);
+
+    verify(shardRepository).debit(eq(1L), intThat(s -> s >= 0 && s < 4), eq(BigDecimal.TEN));
+  }
+
+  @Test
+  void getBalanceAt_PlainWallet_SubtractsLaterOperations() {
+    LocalDateTime at = LocalDateTime.of(2024, 3, 1, 0, 0);
+    when(walletRepository.findBalance(1L)).thenReturn(Optional.of(new BigDecimal("100")));
+    when(transactionRepository.sumDeltaSince(1L, at)).thenReturn(new BigDecimal("-30"));
+
+    assertEquals(new BigDecimal("130"), balanceService.getBalanceAt(1L, at));
+    verifyNoInteractions(ledgerService);
+  }
+
+  @Test
+  void enableSharding_MovesBalanceToFirstShard() {
+    Wallet wallet = Wallet.builder().id(1L).balance(new BigDecimal("100")).build();
+    when(walletRepository.lockById(1L)).thenReturn(Optional.of(wallet));
+
+    balanceService.enableSharding(1L, 4);
+
+    assertEquals(4, wallet.getBalanceShards());
+    assertEquals(BigDecimal.ZERO, wallet.getBalance());
+    verify(shardRepository)
+        .saveAll(
+            argThat(
+                (List<WalletBalanceShard> rows) ->
+                    rows.size() == 4 && rows.get(0).getBalance().equals(new BigDecimal("100"))));
+  }
+
+  private static WalletBalanceShard shard(int shard, String balance) {
+    return WalletBalanceShard.builder()
+        .walletId(1L)
+        .shard(shard)
+        .balance(new BigDecimal(balance))
+        .build();
+  }
+}
@@ -0,0 +1,117 @@
+package com.example.financetracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.financetracker.dto.BudgetAlert;
+import com.example.financetracker.entity.Category;
+import com.example.financetracker.entity.TransactionType;
+import com.example.financetracker.repository.CategoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetAlertServiceTest {
+
+  @Mock private CategoryRepository categoryRepository;
+  @Mock private BudgetAlertStream alertStream;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private BudgetAlertService service;
+
+  @BeforeEach
+  void setUp() {
+    service =
+        new BudgetAlertService(
+            categoryRepository,
+            alertStream,
+            new FinanceMetrics(meterRegistry),
+            1,
+            10);
+  }
+
+  @Test
+  void evaluate_CrossingLimit_PushesAlertAndCountsIt() {
+    // 400 + 200 = 600 > 500
+    givenFood();
+
+    service.evaluate(expense("400", "600"));
+
+    verify(alertStream)
+        .publish(
+            1L,
+            new BudgetAlert(
+                "Food",
+                100,
+                new BigDecimal("500"),
+                new BigDecimal("600.00"),
+                new BigDecimal("-100.00")));
+    assertEquals(1.0, meterRegistry.counter("finance.budget.exceeded").count());
+  }
+
+  @Test
+  void evaluate_CrossingWarningLevel_PushesEightyPercent() {
+    givenFood();
+
+    service.evaluate(expense("350", "450"));
+
+    verify(alertStream).publish(eq(1L), argThat(alert -> alert.threshold() == 80));
+    assertEquals(0.0, meterRegistry.counter("finance.budget.exceeded").count());
+  }
+
+  @Test
+  void evaluate_AlreadyOverLimit_StaysQuiet() {
+    givenFood();
+
+    service.evaluate(expense("600", "700"));
+
+    verify(alertStream, never()).publish(any(), any());
+  }
+
+  @Test
+  void crossedThreshold_PicksHighestCrossed() {
+    assertEquals(100, BudgetAlertService.crossedThreshold(50000, 30000, 60000));
+    assertEquals(80, BudgetAlertService.crossedThreshold(50000, 39999, 40000));
+    assertEquals(0, BudgetAlertService.crossedThreshold(50000, 40000, 45000));
+    assertEquals(0, BudgetAlertService.crossedThreshold(50000, 0, 39999));
+  }
+
+  @Test
+  void evaluate_ConcurrentExpenses_OnlyTheCrossingOneAlerts() {
+    givenFood();
+
+    // Два параллельных расхода по 100 при тратах 350, проверки пришли в обратном порядке:
+    // каждый порог пересекает ровно одно событие
+    service.evaluate(expense("450", "550"));
+    service.evaluate(expense("350", "450"));
+
+    verify(alertStream).publish(eq(1L), argThat(alert -> alert.threshold() == 80));
+    verify(alertStream).publish(eq(1L), argThat(alert -> alert.threshold() == 100));
+    assertEquals(1.0, meterRegistry.counter("finance.budget.exceeded").count());
+  }
+
+  // Категория Food с лимитом 500
+  private void givenFood() {
+    Category food =
+        Category.builder()
+            .id(2L)
+            .name("Food")
+            .type(TransactionType.EXPENSE)
+            .budgetLimit(new BigDecimal("500"))
+            .build();
+    when(categoryRepository.findById(2L)).thenReturn(Optional.of(food));
+  }
+
+  // Расход по Food: траты до и после приращения счётчика
+  private static ExpenseRecordedEvent expense(String before, String after) {
+    return new ExpenseRecordedEvent(1L, 1L, 2L, new BigDecimal(before), new BigDecimal(after));
+  }
+}
@@ -0,0 +1,96 @@
+package com.example.financetracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.financetracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class DataVersionServiceTest {
+
+  @Mock private UserRepository userRepository;
+
+  private DataVersionService dataVersions;
+
+  @BeforeEach
+  void setUp() {
+    dataVersions = new DataVersionService(userRepository, 100, 1);
+  }
+
+  @Test
+  void bump_InsideTransaction_OncePerUserBeforeCommitInIdOrder() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      dataVersions.bump(5L);
+      dataVersions.bump(2L);
+      dataVersions.bump(5L);
+      verifyNoInteractions(userRepository);
+
+      for (TransactionSynchronization sync :
+          TransactionSynchronizationManager.getSynchronizations()) {
+        sync.beforeCommit(false);
+        sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+      }
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    InOrder order = inOrder(userRepository);
+    order.verify(userRepository).bumpDataVersion(2L, 0);
+    order.verify(userRepository).bumpDataVersion(5L, 0);
+    verifyNoMoreInteractions(userRepository);
+    assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty());
+  }
+
+  @Test
+  void bump_WithoutTransaction_Immediate() {
+    dataVersions.bump(1L);
+
+    verify(userRepository).bumpDataVersion(1L, 0);
+  }
+
+  @Test
+  void bump_SpreadsOverShards() {
+    DataVersionService sharded = new DataVersionService(userRepository, 100, 4);
+    ArgumentCaptor<Integer> shard = ArgumentCaptor.forClass(Integer.class);
+
+    for (int i = 0; i < 100; i++) {
+      sharded.bump(1L);
+    }
+
+    verify(userRepository, times(100)).bumpDataVersion(eq(1L), shard.capture());
+    assertTrue(shard.getAllValues().stream().allMatch(s -> s >= 0 && s < 4));
+    assertTrue(shard.getAllValues().stream().distinct().count() > 1);
+  }
+
+  @Test
+  void memoize_SameVersionComputedOnce() {
+    int[] calls = new int[1];
+
+    dataVersions.memoize(1L, 3, "stats", () -> ++calls[0]);
+    Integer cached = dataVersions.memoize(1L, 3, "stats", () -> ++calls[0]);
+    dataVersions.memoize(1L, 4, "stats", () -> ++calls[0]);
+
+    assertEquals(1, cached);
+    assertEquals(2, calls[0]);
+  }
+
+  @Test
+  void matches_IfNoneMatchForms() {
+    assertTrue(DataVersionService.matches("\"7\"", 7));
+    assertTrue(DataVersionService.matches("\"5\", W/\"7\"", 7));
+    assertTrue(DataVersionService.matches("*", 7));
+    assertFalse(DataVersionService.matches("\"6\"", 7));
+    assertFalse(DataVersionService.matches(null, 7));
+  }
+}
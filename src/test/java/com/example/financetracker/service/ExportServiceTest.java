@@ -0,0 +1,70 @@
+package com.example.financetracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.financetracker.dto.AccountRef;
+import com.example.financetracker.dto.TransactionDto;
+import com.example.financetracker.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+  private static final AccountRef ACCOUNT = new AccountRef(1L, 1L, "test");
+
+  @Mock private TransactionRepository transactionRepository;
+
+  private ExportService exportService;
+
+  @BeforeEach
+  void setUp() {
+    exportService =
+        new ExportService(transactionRepository, new ObjectMapper().findAndRegisterModules());
+
+    TransactionDto transaction =
+        new TransactionDto(
+            7L,
+            "Food",
+            new BigDecimal("12.50"),
+            "Lunch, \"big\"",
+            LocalDateTime.of(2024, 3, 1, 12, 0));
+    when(transactionRepository.streamByWallet(eq(1L), any(), any()))
+        .thenReturn(Stream.of(transaction));
+  }
+
+  @Test
+  void export_Csv_EscapesFields() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    exportService.export(ACCOUNT, null, null, ExportService.Format.CSV, out);
+
+    assertEquals(
+        "id,date,category,amount,description\n"
+            + "7,2024-03-01T12:00,Food,12.50,\"Lunch, \"\"big\"\"\"\n",
+        out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void export_Ndjson_WritesOneObjectPerLine() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    exportService.export(ACCOUNT, null, null, ExportService.Format.NDJSON, out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(1, lines.length);
+    assertTrue(lines[0].contains("\"categoryName\":\"Food\""));
+  }
+}
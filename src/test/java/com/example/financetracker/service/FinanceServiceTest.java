@@ -2,12 +2,16 @@ package com.example.financetracker.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 import com.example.financetracker.dto.*;
 import com.example.financetracker.entity.*;
 import com.example.financetracker.repository.*;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -15,9 +19,10 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 class FinanceServiceTest {
@@ -26,23 +31,42 @@ class FinanceServiceTest {
   @Mock private WalletRepository walletRepository;
   @Mock private CategoryRepository categoryRepository;
   @Mock private TransactionRepository transactionRepository;
+  @Mock private CategoryTotalRepository categoryTotalRepository;
+  @Mock private BalanceService balanceService;
+  @Mock private RollupService rollupService;
+  @Mock private ApplicationEventPublisher events;
+  @Mock private DataVersionService dataVersions;
 
-  @InjectMocks private FinanceService financeService;
+  private FinanceService financeService;
 
   private User user;
   private Wallet wallet;
+  private AccountRef account;
 
   @BeforeEach
   void setUp() {
+    financeService =
+        new FinanceService(
+            userRepository,
+            walletRepository,
+            categoryRepository,
+            transactionRepository,
+            categoryTotalRepository,
+            new CategoryCache(categoryRepository, dataVersions, 100, Duration.ofMinutes(1)),
+            balanceService,
+            rollupService,
+            events,
+            dataVersions);
+
     wallet = Wallet.builder().id(1L).balance(new BigDecimal("1000")).build();
     user = User.builder().id(1L).username("test").wallet(wallet).build();
+    account = new AccountRef(1L, 1L, "test");
   }
 
   // ... (Тесты 1-7 оставляем без изменений, они работают)
 
-  // ИСПРАВЛЕННЫЙ ТЕСТ №8
   @Test
-  void addTransaction_BudgetExceeded_ReturnsWarning() {
+  void addTransaction_BudgetedExpense_RemainingBudgetFromUpsertedTotal() {
     Category cat =
         Category.builder()
             .id(1L)
@@ -51,31 +75,23 @@ class FinanceServiceTest {
             .budgetLimit(new BigDecimal("500"))
             .build();
 
-    when(userRepository.findByUsername("test")).thenReturn(Optional.of(user));
-    when(categoryRepository.findByUser(user)).thenReturn(List.of(cat));
-
-    // Существующая транзакция (400)
-    Transaction existing =
-        Transaction.builder().category(cat).amount(new BigDecimal("400")).build();
-
-    // Новая транзакция (200), которую мы сейчас добавляем.
-    // В реальной базе она бы сохранилась и вернулась в поиске.
-    // В Mockito мы должны явно сказать: "верни список из двух элементов".
-    Transaction newTrans =
-        Transaction.builder().category(cat).amount(new BigDecimal("200")).build();
-
-    // Важное изменение здесь: возвращаем List.of(existing, newTrans)
-    when(transactionRepository.findByWallet(wallet)).thenReturn(List.of(existing, newTrans));
+    when(categoryRepository.findByUserId(1L)).thenReturn(List.of(cat));
+    when(categoryTotalRepository.add(1L, 1L, new BigDecimal("200")))
+        .thenReturn(new BigDecimal("650"));
 
     TransactionDto dto = new TransactionDto();
     dto.setCategoryName("Food");
-    dto.setAmount(new BigDecimal("200")); // 400 + 200 = 600 > 500
+    dto.setAmount(new BigDecimal("200"));
 
-    TransactionResponse response = financeService.addTransaction("test", dto);
+    TransactionResponse response = financeService.addTransaction(account, dto);
 
-    // Теперь сервис посчитает сумму как 600 и выдаст WARNING
-    assertNotNull(response.getMessage());
-    assertTrue(response.getMessage().contains("WARNING"));
+    // Остаток и уведомление — из приращения счётчика, без чтения операций
+    assertEquals("WARNING: Budget exceeded for category Food", response.getMessage());
+    assertEquals(new BigDecimal("-150"), response.getRemainingBudget());
+    verify(transactionRepository, never()).findDtosByWallet(any());
+    verify(events)
+        .publishEvent(
+            new ExpenseRecordedEvent(1L, 1L, 1L, new BigDecimal("450"), new BigDecimal("650")));
   }
 
   // ... (Остальные тесты 9-15 оставляем без изменений, скопируйте их из предыдущего ответа)
@@ -84,7 +100,7 @@ class FinanceServiceTest {
 
   @Test
   void createCategory_Success() {
-    when(userRepository.findByUsername("test")).thenReturn(Optional.of(user));
+    when(userRepository.getReferenceById(1L)).thenReturn(user);
     when(categoryRepository.findByNameAndUserAndType(any(), any(), any()))
         .thenReturn(Optional.empty());
     when(categoryRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
@@ -93,13 +109,13 @@ class FinanceServiceTest {
     dto.setName("Food");
     dto.setType(TransactionType.EXPENSE);
 
-    Category result = financeService.createCategory("test", dto);
+    Category result = financeService.createCategory(account, dto);
     assertEquals("Food", result.getName());
   }
 
   @Test
   void createCategory_Duplicate_ThrowsException() {
-    when(userRepository.findByUsername("test")).thenReturn(Optional.of(user));
+    when(userRepository.getReferenceById(1L)).thenReturn(user);
     when(categoryRepository.findByNameAndUserAndType(any(), any(), any()))
         .thenReturn(Optional.of(new Category()));
 
@@ -107,20 +123,19 @@ class FinanceServiceTest {
     dto.setName("Food");
     dto.setType(TransactionType.EXPENSE);
 
-    assertThrows(RuntimeException.class, () -> financeService.createCategory("test", dto));
+    assertThrows(RuntimeException.class, () -> financeService.createCategory(account, dto));
   }
 
   @Test
   void updateCategory_Success() {
     Category category = Category.builder().id(1L).user(user).name("Old").build();
-    when(userRepository.findByUsername("test")).thenReturn(Optional.of(user));
     when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
     when(categoryRepository.save(any())).thenAnswer(i -> i.getArguments()[0]);
 
     CategoryDto dto = new CategoryDto();
     dto.setName("New");
 
-    Category result = financeService.updateCategory("test", 1L, dto);
+    Category result = financeService.updateCategory(account, 1L, dto);
     assertEquals("New", result.getName());
   }
 
@@ -129,79 +144,163 @@ class FinanceServiceTest {
     User otherUser = User.builder().id(2L).build();
     Category category = Category.builder().id(1L).user(otherUser).name("Old").build();
 
-    when(userRepository.findByUsername("test")).thenReturn(Optional.of(user));
     when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
 
     assertThrows(
-        RuntimeException.class, () -> financeService.updateCategory("test", 1L, new CategoryDto()));
+        RuntimeException.class,
+        () -> financeService.updateCategory(account, 1L, new CategoryDto()));
   }
 
   @Test
   void addTransaction_Income_IncreasesBalance() {
     Category cat = Category.builder().name("Salary").type(TransactionType.INCOME).build();
-    when(userRepository.findByUsername("test")).thenReturn(Optional.of(user));
-    when(categoryRepository.findByUser(user)).thenReturn(List.of(cat));
+    when(categoryRepository.findByUserId(1L)).thenReturn(List.of(cat));
 
     TransactionDto dto = new TransactionDto();
     dto.setCategoryName("Salary");
     dto.setAmount(new BigDecimal("500"));
 
-    financeService.addTransaction("test", dto);
-    assertEquals(new BigDecimal("1500"), wallet.getBalance());
+    financeService.addTransaction(account, dto);
+    verify(balanceService).credit(1L, new BigDecimal("500"));
   }
 
   @Test
   void addTransaction_Expense_DecreasesBalance() {
     Category cat = Category.builder().id(1L).name("Food").type(TransactionType.EXPENSE).build();
-    when(userRepository.findByUsername("test")).thenReturn(Optional.of(user));
-    when(categoryRepository.findByUser(user)).thenReturn(List.of(cat));
+    when(categoryRepository.findByUserId(1L)).thenReturn(List.of(cat));
 
     TransactionDto dto = new TransactionDto();
     dto.setCategoryName("Food");
     dto.setAmount(new BigDecimal("100"));
 
-    financeService.addTransaction("test", dto);
-    assertEquals(new BigDecimal("900"), wallet.getBalance());
+    financeService.addTransaction(account, dto);
+    verify(balanceService).debit(1L, new BigDecimal("100"));
   }
 
   @Test
   void addTransaction_Expense_InsufficientFunds() {
     Category cat = Category.builder().name("Food").type(TransactionType.EXPENSE).build();
-    when(userRepository.findByUsername("test")).thenReturn(Optional.of(user));
-    when(categoryRepository.findByUser(user)).thenReturn(List.of(cat));
+    when(categoryRepository.findByUserId(1L)).thenReturn(List.of(cat));
 
     TransactionDto dto = new TransactionDto();
     dto.setCategoryName("Food");
     dto.setAmount(new BigDecimal("2000"));
+    doThrow(new RuntimeException("Insufficient funds"))
+        .when(balanceService)
+        .debit(1L, new BigDecimal("2000"));
 
-    assertThrows(RuntimeException.class, () -> financeService.addTransaction("test", dto));
+    assertThrows(RuntimeException.class, () -> financeService.addTransaction(account, dto));
+    verify(transactionRepository, never()).save(any());
   }
 
   @Test
   void addTransaction_CategoryNotFound() {
-    when(userRepository.findByUsername("test")).thenReturn(Optional.of(user));
-    when(categoryRepository.findByUser(user)).thenReturn(Collections.emptyList());
+    when(categoryRepository.findByUserId(1L)).thenReturn(List.of());
 
     TransactionDto dto = new TransactionDto();
     dto.setCategoryName("Unknown");
     dto.setAmount(BigDecimal.TEN);
 
-    assertThrows(RuntimeException.class, () -> financeService.addTransaction("test", dto));
+    assertThrows(RuntimeException.class, () -> financeService.addTransaction(account, dto));
   }
 
   @Test
-  void transfer_Success() {
-    User receiver =
-        User.builder()
+  void addTransactions_AppliesNetBalanceOnce() {
+    Category salary = Category.builder().id(1L).name("Salary").type(TransactionType.INCOME).build();
+    Category food = Category.builder().id(2L).name("Food").type(TransactionType.EXPENSE).build();
+    when(categoryRepository.findByUserId(1L)).thenReturn(List.of(salary, food));
+
+    BulkTransactionResponse response =
+        financeService.addTransactions(
+            account, List.of(dto("Salary", "300"), dto("Food", "100"), dto("Food", "50")));
+
+    assertEquals(3, response.getInserted());
+    assertEquals(List.of(), response.getWarnings());
+    verify(categoryRepository).findByUserId(1L);
+    verify(balanceService).credit(1L, new BigDecimal("150.00"));
+    verify(balanceService, never()).debit(any(), any());
+    verify(transactionRepository).saveAll(anyIterable());
+    verify(categoryTotalRepository).add(1L, 2L, new BigDecimal("150.00"));
+    // У категорий нет лимитов — проверять нечего
+    verifyNoInteractions(events);
+  }
+
+  @Test
+  void addTransactions_ZeroNet_StillLocksForEntries() {
+    Category salary = Category.builder().id(1L).name("Salary").type(TransactionType.INCOME).build();
+    Category food = Category.builder().id(2L).name("Food").type(TransactionType.EXPENSE).build();
+    when(categoryRepository.findByUserId(1L)).thenReturn(List.of(salary, food));
+
+    financeService.addTransactions(account, List.of(dto("Salary", "100"), dto("Food", "100")));
+
+    // Баланс не меняется, но строки журнала вставляются под блокировкой кошелька
+    verify(balanceService).lockForEntries(1L);
+    verify(balanceService, never()).credit(any(), any());
+    verify(balanceService, never()).debit(any(), any());
+    verify(transactionRepository).saveAll(anyIterable());
+  }
+
+  @Test
+  void addTransactions_BudgetedCategory_PublishesTotalsOfItsUpsert() {
+    Category food =
+        Category.builder()
             .id(2L)
-            .username("bob")
-            .wallet(Wallet.builder().balance(BigDecimal.ZERO).build())
+            .name("Food")
+            .type(TransactionType.EXPENSE)
+            .budgetLimit(new BigDecimal("500"))
+            .build();
+    Category rent =
+        Category.builder()
+            .id(3L)
+            .name("Rent")
+            .type(TransactionType.EXPENSE)
+            .budgetLimit(new BigDecimal("100"))
             .build();
+    when(categoryRepository.findByUserId(1L)).thenReturn(List.of(food, rent));
+    when(categoryTotalRepository.add(1L, 2L, new BigDecimal("150.00")))
+        .thenReturn(new BigDecimal("420.00"));
+    when(categoryTotalRepository.add(1L, 3L, new BigDecimal("120.00")))
+        .thenReturn(new BigDecimal("120.00"));
+
+    BulkTransactionResponse response =
+        financeService.addTransactions(
+            account, List.of(dto("Food", "100"), dto("Rent", "120"), dto("Food", "50")));
+
+    // Лимит превышен только у Rent
+    assertEquals(List.of("WARNING: Budget exceeded for category Rent"), response.getWarnings());
+    verify(events)
+        .publishEvent(
+            new ExpenseRecordedEvent(
+                1L, 1L, 2L, new BigDecimal("270.00"), new BigDecimal("420.00")));
+  }
 
-    when(userRepository.findByUsername("test")).thenReturn(Optional.of(user));
-    when(userRepository.findByUsername("bob")).thenReturn(Optional.of(receiver));
-    when(categoryRepository.findByNameAndUserAndType(any(), any(), any()))
-        .thenReturn(Optional.empty());
+  @Test
+  void addTransactions_InsufficientFunds_InsertsNothing() {
+    Category food = Category.builder().id(2L).name("Food").type(TransactionType.EXPENSE).build();
+    when(categoryRepository.findByUserId(1L)).thenReturn(List.of(food));
+    doThrow(new RuntimeException("Insufficient funds"))
+        .when(balanceService)
+        .debit(1L, new BigDecimal("1500.00"));
+
+    assertThrows(
+        RuntimeException.class,
+        () -> financeService.addTransactions(account, List.of(dto("Food", "1500"))));
+    verify(transactionRepository, never()).saveAll(any());
+  }
+
+  private static TransactionDto dto(String categoryName, String amount) {
+    TransactionDto dto = new TransactionDto();
+    dto.setCategoryName(categoryName);
+    dto.setAmount(new BigDecimal(amount));
+    return dto;
+  }
+
+  @Test
+  void transfer_Success() {
+    when(userRepository.findAccountByUsername("test")).thenReturn(Optional.of(account));
+    when(userRepository.findAccountByUsername("bob"))
+        .thenReturn(Optional.of(new AccountRef(2L, 2L, "bob")));
+    when(categoryRepository.saveAndFlush(any())).thenAnswer(i -> i.getArguments()[0]);
 
     TransferRequest req = new TransferRequest();
     req.setReceiverUsername("bob");
@@ -209,30 +308,56 @@ class FinanceServiceTest {
 
     financeService.transfer("test", req);
 
-    assertEquals(new BigDecimal("900"), wallet.getBalance());
-    assertEquals(new BigDecimal("100"), receiver.getWallet().getBalance());
+    verify(balanceService).debit(1L, new BigDecimal("100"));
+    verify(balanceService).credit(2L, new BigDecimal("100"));
+    // Данные изменились у обоих: ETag отчётов отправителя и получателя устаревает
+    verify(dataVersions).bump(1L);
+    verify(dataVersions).bump(2L);
   }
 
   @Test
-  void transfer_Self_ThrowsException() {
-    when(userRepository.findByUsername("test")).thenReturn(Optional.of(user));
-    when(userRepository.findByUsername("test_receiver")).thenReturn(Optional.of(user));
+  void transfer_LocksWalletsInIdOrder() {
+    when(categoryRepository.saveAndFlush(any())).thenAnswer(i -> i.getArguments()[0]);
 
-    TransferRequest req = new TransferRequest();
-    req.setReceiverUsername("test_receiver");
+    financeService.transfer(
+        new AccountRef(1L, 3L, "test"), new AccountRef(2L, 2L, "bob"), BigDecimal.TEN);
 
-    assertThrows(RuntimeException.class, () -> financeService.transfer("test", req));
+    InOrder order = inOrder(balanceService);
+    order.verify(balanceService).credit(2L, BigDecimal.TEN);
+    order.verify(balanceService).debit(3L, BigDecimal.TEN);
+  }
+
+  @Test
+  void transfer_Self_ThrowsException() {
+    assertThrows(
+        RuntimeException.class, () -> financeService.transfer(account, account, BigDecimal.TEN));
+    verifyNoInteractions(balanceService);
   }
 
   @Test
   void transfer_ReceiverNotFound() {
-    when(userRepository.findByUsername("test")).thenReturn(Optional.of(user));
-    when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+    when(userRepository.findAccountByUsername("test")).thenReturn(Optional.of(account));
+    when(userRepository.findAccountByUsername("ghost")).thenReturn(Optional.empty());
 
     TransferRequest req = new TransferRequest();
     req.setReceiverUsername("ghost");
 
-    assertThrows(RuntimeException.class, () -> financeService.transfer("test", req));
+    RuntimeException e =
+        assertThrows(RuntimeException.class, () -> financeService.transfer("test", req));
+    assertEquals("Receiver not found", e.getMessage());
+  }
+
+  @Test
+  void getStats_VersionUnchanged_SkipsAggregation() {
+    when(userRepository.findAccountByUsername("test")).thenReturn(Optional.of(account));
+    when(dataVersions.current(1L)).thenReturn(7L);
+
+    Versioned<StatsResponse> result =
+        financeService.getStats("test", null, null, version -> version == 7L);
+
+    assertEquals(7L, result.version());
+    assertNull(result.body());
+    verifyNoInteractions(categoryTotalRepository, rollupService, categoryRepository);
   }
 
   @Test
@@ -245,42 +370,46 @@ class FinanceServiceTest {
             .budgetLimit(BigDecimal.TEN)
             .build();
 
-    Transaction t1 =
-        Transaction.builder()
-            .category(inc)
-            .amount(new BigDecimal("100"))
-            .date(LocalDateTime.now())
-            .build();
-    Transaction t2 =
-        Transaction.builder()
-            .category(exp)
-            .amount(new BigDecimal("50"))
-            .date(LocalDateTime.now())
-            .build();
-
-    when(userRepository.findByUsername("test")).thenReturn(Optional.of(user));
-    when(transactionRepository.findByWallet(wallet)).thenReturn(List.of(t1, t2));
-    when(categoryRepository.findByUser(user)).thenReturn(List.of(inc, exp));
+    when(userRepository.findAccountByUsername("test")).thenReturn(Optional.of(account));
+    when(categoryTotalRepository.sumByCategory(1L))
+        .thenReturn(
+            List.of(
+                new CategoryAmount(TransactionType.INCOME, "Job", new BigDecimal("100")),
+                new CategoryAmount(TransactionType.EXPENSE, "Food", new BigDecimal("50"))));
+    when(categoryRepository.findByUserId(1L)).thenReturn(List.of(inc, exp));
 
     StatsResponse stats = financeService.getStats("test", null, null);
 
     assertEquals(new BigDecimal("100"), stats.getTotalIncome());
     assertEquals(new BigDecimal("50"), stats.getTotalExpense());
+    assertEquals(new BigDecimal("-40"), stats.getBudgetStatus().get("Food"));
+    verifyNoInteractions(rollupService);
+  }
+
+  @Test
+  void getStats_WithPeriod_UsesRollups() {
+    LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+
+    when(userRepository.findAccountByUsername("test")).thenReturn(Optional.of(account));
+    when(rollupService.sumByCategory(1L, from, to))
+        .thenReturn(
+            List.of(new CategoryAmount(TransactionType.EXPENSE, "Food", new BigDecimal("30"))));
+    when(categoryRepository.findByUserId(1L)).thenReturn(Collections.emptyList());
+
+    StatsResponse stats = financeService.getStats("test", from, to);
+
+    assertEquals(BigDecimal.ZERO, stats.getTotalIncome());
+    assertEquals(new BigDecimal("30"), stats.getExpensesByCategory().get("Food"));
+    verify(categoryTotalRepository, never()).sumByCategory(any());
   }
 
   @Test
   void export_ReturnsList() {
-    Category cat = Category.builder().name("Food").build();
-    Transaction t1 =
-        Transaction.builder()
-            .id(1L)
-            .category(cat)
-            .amount(BigDecimal.TEN)
-            .date(LocalDateTime.now())
-            .build();
+    TransactionDto t1 = new TransactionDto(1L, "Food", BigDecimal.TEN, null, LocalDateTime.now());
 
-    when(userRepository.findByUsername("test")).thenReturn(Optional.of(user));
-    when(transactionRepository.findByWallet(wallet)).thenReturn(List.of(t1));
+    when(userRepository.findAccountByUsername("test")).thenReturn(Optional.of(account));
+    when(transactionRepository.findDtosByWallet(1L)).thenReturn(List.of(t1));
 
     List<TransactionDto> result = financeService.exportTransactions("test");
     assertEquals(1, result.size());
@@ -288,8 +417,85 @@ class FinanceServiceTest {
   }
 
   @Test
-  void getUser_NotFound() {
-    when(userRepository.findByUsername("unknown")).thenReturn(Optional.empty());
+  void getTransactions_ReturnsCursorForNextPage() {
+    LocalDateTime now = LocalDateTime.of(2024, 5, 1, 10, 0);
+    List<TransactionDto> rows =
+        List.of(
+            new TransactionDto(3L, "Food", BigDecimal.ONE, null, now),
+            new TransactionDto(2L, "Food", BigDecimal.ONE, null, now),
+            new TransactionDto(1L, "Food", BigDecimal.ONE, null, now));
+
+    when(userRepository.findAccountByUsername("test")).thenReturn(Optional.of(account));
+    when(transactionRepository.findPage(eq(1L), isNull(), any(), any(), isNull(), isNull(), eq(3)))
+        .thenReturn(rows);
+
+    TransactionPage page = financeService.getTransactions("test", null, 2, null, null, null);
+
+    assertEquals(2, page.getItems().size());
+    assertNotNull(page.getNextCursor());
+
+    when(transactionRepository.findPage(eq(1L), isNull(), any(), any(), eq(now), eq(2L), eq(3)))
+        .thenReturn(List.of(rows.get(2)));
+
+    TransactionPage next =
+        financeService.getTransactions("test", page.getNextCursor(), 2, null, null, null);
+
+    assertEquals(1, next.getItems().size());
+    assertNull(next.getNextCursor());
+  }
+
+  @Test
+  void getTransactions_InvalidCursor_ThrowsException() {
+    when(userRepository.findAccountByUsername("test")).thenReturn(Optional.of(account));
+
+    assertThrows(
+        RuntimeException.class,
+        () -> financeService.getTransactions("test", "???", 10, null, null, null));
+  }
+
+  @Test
+  void addTransaction_CategoriesCachedBetweenCalls() {
+    Category cat = Category.builder().id(1L).name("Salary").type(TransactionType.INCOME).build();
+    when(categoryRepository.findByUserId(1L)).thenReturn(List.of(cat));
+
+    TransactionDto dto = new TransactionDto();
+    dto.setCategoryName("Salary");
+    dto.setAmount(BigDecimal.TEN);
+
+    financeService.addTransaction(account, dto);
+    financeService.addTransaction(account, dto);
+    verify(categoryRepository, times(1)).findByUserId(1L);
+
+    CategoryDto update = new CategoryDto();
+    update.setName("Salary");
+    cat.setUser(user);
+    when(categoryRepository.findById(1L)).thenReturn(Optional.of(cat));
+    financeService.updateCategory(account, 1L, update);
+
+    financeService.addTransaction(account, dto);
+    verify(categoryRepository, times(2)).findByUserId(1L);
+  }
+
+  @Test
+  void getStats_CachedCategoriesOlderThanVersion_Reloaded() {
+    Category food = Category.builder().id(2L).name("Food").type(TransactionType.EXPENSE).build();
+    when(userRepository.findAccountByUsername("test")).thenReturn(Optional.of(account));
+    when(categoryRepository.findByUserId(1L)).thenReturn(List.of(food));
+    when(dataVersions.current(1L)).thenReturn(3L);
+
+    financeService.addTransaction(account, dto("Food", "1"));
+    financeService.getStats("test", null, null);
+    verify(categoryRepository, times(1)).findByUserId(1L);
+
+    // Категории изменены в другом экземпляре: версия выросла, запись кэша перечитывается
+    when(dataVersions.current(1L)).thenReturn(4L);
+    financeService.getStats("test", null, null);
+    verify(categoryRepository, times(2)).findByUserId(1L);
+  }
+
+  @Test
+  void getAccount_NotFound() {
+    when(userRepository.findAccountByUsername("unknown")).thenReturn(Optional.empty());
     assertThrows(RuntimeException.class, () -> financeService.getCategories("unknown"));
   }
 }
@@ -0,0 +1,182 @@
+package com.example.financetracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.financetracker.dto.TransferRequest;
+import com.example.financetracker.entity.IdempotencyRecord;
+import com.example.financetracker.exception.IdempotencyException;
+import com.example.financetracker.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+  @Mock private IdempotencyRecordRepository repository;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private IdempotencyService service;
+  private final AtomicInteger executions = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    service =
+        new IdempotencyService(
+            repository,
+            new ObjectMapper().findAndRegisterModules(),
+            transactionManager,
+            Duration.ofHours(1),
+            100,
+            Duration.ofHours(1));
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  void withoutKey_RunsEveryTime() {
+    transfer(null, "100");
+    transfer(null, "100");
+
+    assertEquals(2, executions.get());
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void repeat_ServedFromMemoryWithoutRunningAgain() {
+    when(repository.claim(eq("alice"), eq("k1"), anyString(), any(), any())).thenReturn(1);
+
+    assertEquals("done 1", transfer("k1", "100"));
+    assertEquals("done 1", transfer("k1", "100"));
+
+    assertEquals(1, executions.get());
+    verify(repository).complete(eq("alice"), eq("k1"), eq("\"done 1\""), any());
+    verify(repository, times(1)).claim(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void claim_KeyActionAndResponseShareOneTransaction() {
+    ArgumentCaptor<LocalDateTime> claimedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+    ArgumentCaptor<LocalDateTime> expiresAt = ArgumentCaptor.forClass(LocalDateTime.class);
+    when(repository.claim(any(), any(), any(), claimedAt.capture(), expiresAt.capture()))
+        .thenReturn(1);
+
+    service.execute(
+        "alice",
+        "k1",
+        "POST /transfer",
+        request("100"),
+        String.class,
+        () -> {
+          // Действие идёт после занятия ключа, до сохранения ответа и коммита
+          verify(repository).claim(any(), any(), any(), any(), any());
+          verify(repository, never()).complete(any(), any(), any(), any());
+          verify(transactionManager, never()).commit(any());
+          return "done";
+        });
+
+    InOrder order = inOrder(transactionManager, repository);
+    order.verify(transactionManager).getTransaction(any());
+    order.verify(repository).claim(eq("alice"), eq("k1"), anyString(), any(), any());
+    order.verify(repository).complete(eq("alice"), eq("k1"), eq("\"done\""), any());
+    order.verify(transactionManager).commit(any());
+    // Строка ключа видна другим только с ответом, поэтому сразу живёт ttl
+    assertEquals(
+        Duration.ofHours(1), Duration.between(claimedAt.getValue(), expiresAt.getValue()));
+  }
+
+  @Test
+  void keyCompletedElsewhere_ReturnsStoredResponse() {
+    ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+    when(repository.claim(eq("alice"), eq("k1"), hash.capture(), any(), any())).thenReturn(0);
+    when(repository.findRecord("alice", "k1"))
+        .thenAnswer(
+            invocation ->
+                Optional.of(
+                    IdempotencyRecord.builder()
+                        .requestHash(hash.getValue())
+                        .response("\"stored\"")
+                        .build()));
+
+    assertEquals("stored", transfer("k1", "100"));
+    assertEquals(0, executions.get());
+  }
+
+  @Test
+  void keyWithoutResponse_Conflict() {
+    when(repository.claim(any(), any(), any(), any(), any())).thenReturn(0);
+    when(repository.findRecord("alice", "k1")).thenReturn(Optional.empty());
+
+    IdempotencyException e = assertThrows(IdempotencyException.class, () -> transfer("k1", "1"));
+    assertEquals(HttpStatus.CONFLICT, e.getStatus());
+  }
+
+  @Test
+  void sameKeyDifferentBody_Unprocessable() {
+    when(repository.claim(eq("alice"), eq("k1"), anyString(), any(), any())).thenReturn(1);
+    transfer("k1", "100");
+
+    IdempotencyException e = assertThrows(IdempotencyException.class, () -> transfer("k1", "999"));
+    assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatus());
+    assertEquals(1, executions.get());
+  }
+
+  @Test
+  void failedAction_RollsBackKeyWithAction() {
+    when(repository.claim(any(), any(), any(), any(), any())).thenReturn(1);
+
+    assertThrows(
+        RuntimeException.class,
+        () ->
+            service.execute(
+                "alice",
+                "k1",
+                "POST /transfer",
+                request("100"),
+                String.class,
+                () -> {
+                  throw new RuntimeException("Insufficient funds");
+                }));
+
+    verify(repository, never()).complete(any(), any(), any(), any());
+    verify(transactionManager).rollback(any());
+    verify(transactionManager, never()).commit(any());
+  }
+
+  private String transfer(String key, String amount) {
+    return service.execute(
+        "alice",
+        key,
+        "POST /transfer",
+        request(amount),
+        String.class,
+        () -> "done " + executions.incrementAndGet());
+  }
+
+  private static TransferRequest request(String amount) {
+    TransferRequest request = new TransferRequest();
+    request.setReceiverUsername("bob");
+    request.setAmount(new BigDecimal(amount));
+    return request;
+  }
+}
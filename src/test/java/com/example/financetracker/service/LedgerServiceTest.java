@@ -0,0 +1,132 @@
+package com.example.financetracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.example.financetracker.entity.Wallet;
+import com.example.financetracker.entity.WalletBalanceSnapshot;
+import com.example.financetracker.repository.TransactionRepository;
+import com.example.financetracker.repository.WalletBalanceSnapshotRepository;
+import com.example.financetracker.repository.WalletRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+  private static final LocalDateTime SNAPSHOT_AT = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+  @Mock private WalletRepository walletRepository;
+  @Mock private TransactionRepository transactionRepository;
+  @Mock private WalletBalanceSnapshotRepository snapshotRepository;
+
+  private LedgerService ledgerService;
+
+  @BeforeEach
+  void setUp() {
+    ledgerService = new LedgerService(walletRepository, transactionRepository, snapshotRepository);
+  }
+
+  @Test
+  void getBalance_SnapshotPlusDatedAndBackdatedTail() {
+    givenLatestSnapshot(snapshot(SNAPSHOT_AT, 500, "100.00"));
+    when(transactionRepository.sumDeltaSince(1L, SNAPSHOT_AT)).thenReturn(new BigDecimal("25"));
+    when(transactionRepository.sumDeltaAfterSeq(1L, 500, SNAPSHOT_AT))
+        .thenReturn(new BigDecimal("-5"));
+
+    assertEquals(new BigDecimal("120.00"), ledgerService.getBalance(1L));
+  }
+
+  @Test
+  void getBalanceAt_UsesSnapshotNotLaterThanMoment() {
+    LocalDateTime at = SNAPSHOT_AT.plusDays(10);
+    when(snapshotRepository.findFirstByWalletIdAndAsOfLessThanEqualOrderByAsOfDesc(1L, at))
+        .thenReturn(Optional.of(snapshot(SNAPSHOT_AT, 500, "100.00")));
+    when(transactionRepository.sumDeltaBetween(1L, SNAPSHOT_AT, at))
+        .thenReturn(new BigDecimal("-40"));
+    when(transactionRepository.sumDeltaAfterSeq(1L, 500, SNAPSHOT_AT)).thenReturn(BigDecimal.ZERO);
+
+    assertEquals(new BigDecimal("60.00"), ledgerService.getBalanceAt(1L, at));
+  }
+
+  @Test
+  void debit_InsufficientLedgerBalance_Throws() {
+    when(walletRepository.lockForDebit(1L)).thenReturn(Optional.of(1L));
+    givenLatestSnapshot(snapshot(SNAPSHOT_AT, 500, "10.00"));
+    when(transactionRepository.sumDeltaSince(1L, SNAPSHOT_AT)).thenReturn(BigDecimal.ZERO);
+    when(transactionRepository.sumDeltaAfterSeq(1L, 500, SNAPSHOT_AT)).thenReturn(BigDecimal.ZERO);
+
+    RuntimeException e =
+        assertThrows(RuntimeException.class, () -> ledgerService.debit(1L, new BigDecimal("11")));
+    assertEquals("Insufficient funds", e.getMessage());
+  }
+
+  @Test
+  void enable_KeepsUnexplainedBalanceInOpeningSnapshot() {
+    Wallet wallet = Wallet.builder().id(1L).balance(new BigDecimal("100.00")).build();
+    when(walletRepository.lockById(1L)).thenReturn(Optional.of(wallet));
+    when(transactionRepository.sumDeltaSince(1L, LedgerService.LEDGER_START))
+        .thenReturn(new BigDecimal("70.00"));
+    when(transactionRepository.currentLedgerSeq()).thenReturn(900L);
+
+    ledgerService.enable(1L);
+
+    assertTrue(wallet.isLedger());
+    assertEquals(BigDecimal.ZERO, wallet.getBalance());
+    verify(snapshotRepository).save(snapshot(LedgerService.LEDGER_START, 900, "30.00"));
+  }
+
+  @Test
+  void snapshot_NothingRecordedSinceLast_Skipped() {
+    when(walletRepository.lockForSnapshot(1L)).thenReturn(Optional.of(1L));
+    givenLatestSnapshot(snapshot(SNAPSHOT_AT, 500, "100.00"));
+    when(transactionRepository.existsAfterSeq(1L, 500)).thenReturn(false);
+
+    assertFalse(ledgerService.snapshot(1L));
+    verify(snapshotRepository, never()).save(any());
+  }
+
+  @Test
+  void snapshot_RollsPreviousSnapshotForward() {
+    when(walletRepository.lockForSnapshot(1L)).thenReturn(Optional.of(1L));
+    givenLatestSnapshot(snapshot(SNAPSHOT_AT, 500, "100.00"));
+    when(transactionRepository.existsAfterSeq(1L, 500)).thenReturn(true);
+    when(transactionRepository.currentLedgerSeq()).thenReturn(700L);
+    when(transactionRepository.sumDeltaBetween(eq(1L), eq(SNAPSHOT_AT), any()))
+        .thenReturn(new BigDecimal("15"));
+    when(transactionRepository.sumDeltaAfterSeq(1L, 500, SNAPSHOT_AT))
+        .thenReturn(new BigDecimal("-5"));
+
+    assertTrue(ledgerService.snapshot(1L));
+    verify(snapshotRepository)
+        .save(
+            argThat(
+                (WalletBalanceSnapshot s) ->
+                    s.getLedgerSeq() == 700
+                        && s.getAsOf().isAfter(SNAPSHOT_AT)
+                        && s.getBalance().equals(new BigDecimal("110.00"))));
+  }
+
+  private void givenLatestSnapshot(WalletBalanceSnapshot snapshot) {
+    when(snapshotRepository.findFirstByWalletIdOrderByAsOfDesc(1L))
+        .thenReturn(Optional.of(snapshot));
+  }
+
+  private static WalletBalanceSnapshot snapshot(
+      LocalDateTime asOf, long ledgerSeq, String balance) {
+    return WalletBalanceSnapshot.builder()
+        .walletId(1L)
+        .asOf(asOf)
+        .ledgerSeq(ledgerSeq)
+        .balance(new BigDecimal(balance))
+        .build();
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.financetracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+  @Test
+  void minorUnits_RoundsLikeNumeric() {
+    assertEquals(1050, Money.minorUnits(new BigDecimal("10.5")));
+    assertEquals(1001, Money.minorUnits(new BigDecimal("10.005")));
+    assertEquals(-1001, Money.minorUnits(new BigDecimal("-10.005")));
+  }
+
+  @Test
+  void toBigDecimal_HasMoneyScale() {
+    assertEquals(new BigDecimal("12.30"), Money.toBigDecimal(1230));
+    assertEquals(new BigDecimal("-0.05"), Money.toBigDecimal(-5));
+  }
+
+  @Test
+  void addAndSubtract() {
+    long a = Money.minorUnits(new BigDecimal("100.25"));
+    long b = Money.minorUnits(new BigDecimal("0.75"));
+    assertEquals(10100, Money.add(a, b));
+    assertEquals(9950, Money.subtract(a, b));
+    assertEquals(-9950, Money.subtract(b, a));
+  }
+
+  @Test
+  void overflow_Throws() {
+    assertThrows(RuntimeException.class, () -> Money.add(Long.MAX_VALUE, 1));
+    assertThrows(RuntimeException.class, () -> Money.subtract(Long.MIN_VALUE, 1));
+    assertThrows(RuntimeException.class, () -> Money.minorUnits(new BigDecimal("1e30")));
+  }
+}
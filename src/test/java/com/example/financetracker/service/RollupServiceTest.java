@@ -0,0 +1,99 @@
+package com.example.financetracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.financetracker.dto.CategoryAmount;
+import com.example.financetracker.entity.TransactionType;
+import com.example.financetracker.repository.DailyCategoryTotalRepository;
+import com.example.financetracker.repository.MonthlyCategoryTotalRepository;
+import com.example.financetracker.repository.TransactionRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RollupServiceTest {
+
+  @Mock private DailyCategoryTotalRepository dailyRepository;
+  @Mock private MonthlyCategoryTotalRepository monthlyRepository;
+  @Mock private TransactionRepository transactionRepository;
+  @Mock private DataVersionService dataVersions;
+
+  private RollupService rollupService;
+
+  @BeforeEach
+  void setUp() {
+    rollupService =
+        new RollupService(dailyRepository, monthlyRepository, transactionRepository, dataVersions);
+  }
+
+  @Test
+  void rebuild_BumpsDataVersionsAfterRefill() {
+    when(dailyRepository.insertFromTransactions()).thenReturn(3);
+
+    assertEquals(3, rollupService.rebuild());
+
+    InOrder order = inOrder(dailyRepository, monthlyRepository, dataVersions);
+    order.verify(dailyRepository).insertFromTransactions();
+    order.verify(monthlyRepository).insertFromDaily();
+    order.verify(dataVersions).bumpAll();
+  }
+
+  @Test
+  void sumByCategory_CombinesMonthsDaysAndRawEdges() {
+    LocalDateTime from = LocalDateTime.of(2024, 1, 15, 10, 30);
+    LocalDateTime to = LocalDateTime.of(2024, 4, 3, 12, 0);
+
+    when(monthlyRepository.sumByCategory(1L, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 4, 1)))
+        .thenReturn(List.of(food("100")));
+    when(dailyRepository.sumByCategory(1L, LocalDate.of(2024, 1, 16), LocalDate.of(2024, 2, 1)))
+        .thenReturn(List.of(food("10")));
+    when(dailyRepository.sumByCategory(1L, LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 3)))
+        .thenReturn(List.of(food("20")));
+    when(transactionRepository.sumByCategory(1L, from, LocalDateTime.of(2024, 1, 16, 0, 0)))
+        .thenReturn(List.of(food("1")));
+    when(transactionRepository.sumByCategory(1L, LocalDateTime.of(2024, 4, 3, 0, 0), to))
+        .thenReturn(List.of(food("2")));
+
+    BigDecimal total =
+        rollupService.sumByCategory(1L, from, to).stream()
+            .map(CategoryAmount::total)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+    assertEquals(new BigDecimal("133"), total);
+  }
+
+  @Test
+  void sumByCategory_WholeDaysInsideOneMonth_SkipRawRows() {
+    LocalDateTime from = LocalDateTime.of(2024, 3, 5, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2024, 3, 9, 0, 0);
+
+    rollupService.sumByCategory(1L, from, to);
+
+    verify(dailyRepository).sumByCategory(1L, LocalDate.of(2024, 3, 5), LocalDate.of(2024, 3, 9));
+    verifyNoInteractions(monthlyRepository, transactionRepository);
+  }
+
+  @Test
+  void sumByCategory_WithinOneDay_ReadsTransactionsOnly() {
+    LocalDateTime from = LocalDateTime.of(2024, 3, 5, 9, 0);
+    LocalDateTime to = LocalDateTime.of(2024, 3, 5, 18, 0);
+
+    rollupService.sumByCategory(1L, from, to);
+
+    verify(transactionRepository).sumByCategory(1L, from, to);
+    verifyNoInteractions(monthlyRepository, dailyRepository);
+  }
+
+  private static CategoryAmount food(String total) {
+    return new CategoryAmount(TransactionType.EXPENSE, "Food", new BigDecimal(total));
+  }
+}
@@ -0,0 +1,55 @@
+package com.example.financetracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.financetracker.dto.AccountRef;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class TokenServiceTest {
+
+  private static final String SECRET = "test-secret-0123456789abcdef0123456789";
+
+  private static final AccountRef ALICE = new AccountRef(1L, 2L, "alice");
+
+  private final TokenService tokenService = new TokenService(SECRET, Duration.ofMinutes(5));
+
+  @Test
+  void verify_IssuedToken_ReturnsAccount() {
+    AccountRef account = new AccountRef(1L, 2L, "alice|admin");
+    assertEquals(account, tokenService.verify(tokenService.issue(account)));
+  }
+
+  @Test
+  void verify_TamperedPayload_ReturnsNull() {
+    String token = tokenService.issue(ALICE);
+    String forged = tokenService.issue(new AccountRef(3L, 4L, "mallory"));
+    String mixed = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+    assertNull(tokenService.verify(mixed));
+  }
+
+  @Test
+  void verify_OtherSecret_ReturnsNull() {
+    TokenService other = new TokenService(SECRET + "-other", Duration.ofMinutes(5));
+    assertNull(tokenService.verify(other.issue(ALICE)));
+  }
+
+  @Test
+  void verify_Expired_ReturnsNull() {
+    TokenService expired = new TokenService(SECRET, Duration.ofSeconds(-1));
+    assertNull(expired.verify(expired.issue(ALICE)));
+  }
+
+  @Test
+  void constructor_MissingOrShortSecret_Throws() {
+    assertThrows(IllegalStateException.class, () -> new TokenService("", Duration.ofMinutes(5)));
+    assertThrows(
+        IllegalStateException.class, () -> new TokenService("short", Duration.ofMinutes(5)));
+  }
+
+  @Test
+  void verify_Garbage_ReturnsNull() {
+    assertNull(tokenService.verify("not-a-token"));
+    assertNull(tokenService.verify("!!!.???"));
+  }
+}
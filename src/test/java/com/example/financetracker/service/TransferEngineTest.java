@@ -0,0 +1,107 @@
+package com.example.financetracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.financetracker.dto.AccountRef;
+import com.example.financetracker.dto.TransferRequest;
+import com.example.financetracker.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+
+@ExtendWith(MockitoExtension.class)
+class TransferEngineTest {
+
+  @Mock private FinanceService financeService;
+  @Mock private UserRepository userRepository;
+
+  private final AccountRef alice = new AccountRef(10L, 1L, "alice");
+  private final AccountRef bob = new AccountRef(20L, 2L, "bob");
+
+  private TransferEngine transferEngine;
+  private TransferRequest request;
+
+  @BeforeEach
+  void setUp() {
+    transferEngine =
+        new TransferEngine(
+            financeService,
+            userRepository,
+            new FinanceMetrics(new SimpleMeterRegistry()),
+            16,
+            3,
+            Duration.ofMillis(1));
+    // Отправителя по имени ищут не все тесты
+    lenient().when(userRepository.findAccountByUsername("alice")).thenReturn(Optional.of(alice));
+    when(userRepository.findAccountByUsername("bob")).thenReturn(Optional.of(bob));
+
+    request = new TransferRequest();
+    request.setReceiverUsername("bob");
+    request.setAmount(BigDecimal.TEN);
+  }
+
+  @Test
+  void transfer_RetriesSerializationFailures() {
+    doThrow(new CannotAcquireLockException("deadlock detected"))
+        .doThrow(new CannotAcquireLockException("could not serialize access"))
+        .doNothing()
+        .when(financeService)
+        .transfer(alice, bob, BigDecimal.TEN);
+
+    transferEngine.transfer("alice", request);
+
+    verify(financeService, times(3)).transfer(alice, bob, BigDecimal.TEN);
+  }
+
+  @Test
+  void transfer_GivesUpAfterMaxAttempts() {
+    doThrow(new CannotAcquireLockException("deadlock detected"))
+        .when(financeService)
+        .transfer(alice, bob, BigDecimal.TEN);
+
+    assertThrows(
+        CannotAcquireLockException.class, () -> transferEngine.transfer("alice", request));
+    verify(financeService, times(3)).transfer(alice, bob, BigDecimal.TEN);
+  }
+
+  @Test
+  void transfer_EveryAttemptGoesThroughWrapper() {
+    doThrow(new CannotAcquireLockException("deadlock detected"))
+        .doNothing()
+        .when(financeService)
+        .transfer(alice, bob, BigDecimal.TEN);
+    AtomicInteger wrapped = new AtomicInteger();
+
+    String result =
+        transferEngine.transfer(
+            alice,
+            request,
+            attempt -> {
+              wrapped.incrementAndGet();
+              attempt.run();
+              return "done";
+            });
+
+    assertEquals("done", result);
+    assertEquals(2, wrapped.get());
+  }
+
+  @Test
+  void transfer_BusinessErrorsAreNotRetried() {
+    doThrow(new RuntimeException("Insufficient funds"))
+        .when(financeService)
+        .transfer(alice, bob, BigDecimal.TEN);
+
+    assertThrows(RuntimeException.class, () -> transferEngine.transfer("alice", request));
+    verify(financeService, times(1)).transfer(alice, bob, BigDecimal.TEN);
+  }
+}
@@ -0,0 +1,92 @@
+package com.example.financetracker.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.financetracker.dto.CategoryDto;
+import com.example.financetracker.dto.TransactionDto;
+import com.example.financetracker.entity.TransactionType;
+import com.example.financetracker.repository.UserRepository;
+import com.example.financetracker.repository.WalletRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// Параллельные списания с одного кошелька: без потерянных обновлений и ухода в минус
+@SpringBootTest
+class WalletConcurrencyTest {
+
+  private static final int THREADS = 16;
+  private static final int ATTEMPTS_PER_THREAD = 50;
+
+  @Autowired private AuthService authService;
+  @Autowired private FinanceService financeService;
+  @Autowired private UserRepository userRepository;
+  @Autowired private WalletRepository walletRepository;
+
+  @Test
+  void concurrentExpenses_NeverOverdraw() throws Exception {
+    String username = "concurrency-" + System.nanoTime();
+    authService.register(username, "pass");
+    createCategory(username, "Salary", TransactionType.INCOME);
+    createCategory(username, "Food", TransactionType.EXPENSE);
+    financeService.addTransaction(username, transaction("Salary", "1000"));
+
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger succeeded = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      futures.add(
+          pool.submit(
+              () -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                  try {
+                    financeService.addTransaction(username, transaction("Food", "3"));
+                    succeeded.incrementAndGet();
+                  } catch (RuntimeException e) {
+                    assertEquals("Insufficient funds", e.getMessage());
+                  }
+                }
+                return null;
+              }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(2, TimeUnit.MINUTES);
+    }
+    pool.shutdown();
+
+    // 800 попыток по 3 при балансе 1000: проходят ровно 333, остаток 1
+    BigDecimal balance =
+        walletRepository
+            .findByUser(userRepository.findByUsername(username).orElseThrow())
+            .orElseThrow()
+            .getBalance();
+    assertEquals(333, succeeded.get());
+    assertEquals(0, BigDecimal.ONE.compareTo(balance));
+  }
+
+  private void createCategory(String username, String name, TransactionType type) {
+    CategoryDto dto = new CategoryDto();
+    dto.setName(name);
+    dto.setType(type);
+    financeService.createCategory(username, dto);
+  }
+
+  private static TransactionDto transaction(String category, String amount) {
+    TransactionDto dto = new TransactionDto();
+    dto.setCategoryName(category);
+    dto.setAmount(new BigDecimal(amount));
+    return dto;
+  }
+}